@@ -0,0 +1,70 @@
+package com.electronapp.authbackend.benchmark;
+
+import com.electronapp.authbackend.dto.AuthResponse;
+import com.electronapp.authbackend.dto.UserDTO;
+import com.electronapp.authbackend.entity.User;
+import com.electronapp.authbackend.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserService.convertToUserDTO and JSON serialization of the login/profile responses,
+ * with an ObjectMapper configured like Spring Boot's (java.time support, ISO dates)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoBenchmark {
+
+    @Param({"0", "2"})
+    public int providers;
+
+    private final UserService userService = new UserService();
+    private ObjectMapper objectMapper;
+    private User user;
+    private UserDTO userDTO;
+    private AuthResponse authResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        user = BenchmarkFixtures.user(providers);
+        userDTO = userService.convertToUserDTO(user);
+        authResponse = new AuthResponse("header.payload.signature", "refresh-token", userDTO);
+    }
+
+    @Benchmark
+    public UserDTO convertToUserDTO() {
+        return userService.convertToUserDTO(user);
+    }
+
+    @Benchmark
+    public byte[] serializeUserDTO() throws Exception {
+        return objectMapper.writeValueAsBytes(userDTO);
+    }
+
+    @Benchmark
+    public byte[] serializeAuthResponse() throws Exception {
+        return objectMapper.writeValueAsBytes(authResponse);
+    }
+}
@@ -0,0 +1,69 @@
+package com.electronapp.authbackend.benchmark;
+
+import com.electronapp.authbackend.security.JwtAuthenticationFilter;
+import com.electronapp.authbackend.security.JwtUtils;
+import com.electronapp.authbackend.security.VerifiedTokenCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One pass of JwtAuthenticationFilter over a request carrying a valid bearer token,
+ * with the verified-token cache on (steady state) and off (every token is new)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    @Param({"HS256", "ES256"})
+    public String algorithm;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry registry = BenchmarkFixtures.meterRegistry();
+        VerifiedTokenCache cache = BenchmarkFixtures.verifiedTokenCache(cacheEnabled, registry);
+        JwtUtils jwtUtils = BenchmarkFixtures.jwtUtils(algorithm, cache, registry);
+        filter = BenchmarkFixtures.filter(jwtUtils, cache);
+        authorization = "Bearer " + jwtUtils.generateJwtToken(BenchmarkFixtures.user(1));
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/me");
+        request.addHeader("Authorization", authorization);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.electronapp.authbackend.benchmark;
+
+import com.electronapp.authbackend.security.JwtUtils;
+import com.electronapp.authbackend.security.VerifiedToken;
+import com.electronapp.authbackend.service.TokenRevocationService;
+import com.electronapp.authbackend.util.BloomFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the revocation check for a token that is not revoked, with an empty
+ * denylist and with one holding as many revocations as it is sized for. Such tokens are
+ * answered by the Bloom filter alone; only its false positives (0.1%) reach the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RevocationBenchmark {
+
+    private static final long EXPECTED_REVOCATIONS = 100_000;
+
+    @Param({"0", "100000"})
+    public int revoked;
+
+    private TokenRevocationService revocationService;
+    private VerifiedToken token;
+
+    @Setup
+    public void setUp() {
+        BloomFilter bloomFilter = new BloomFilter(EXPECTED_REVOCATIONS, 0.001);
+        for (int i = 0; i < revoked; i++) {
+            bloomFilter.put(UUID.randomUUID().toString());
+        }
+        revocationService = new TokenRevocationService();
+        ReflectionTestUtils.setField(revocationService, "bloomFilter", bloomFilter);
+
+        MeterRegistry registry = BenchmarkFixtures.meterRegistry();
+        JwtUtils jwtUtils = BenchmarkFixtures.jwtUtils("HS256",
+                BenchmarkFixtures.verifiedTokenCache(false, registry), registry);
+        // A token whose jti happens to be a false positive would measure the database path instead
+        do {
+            token = jwtUtils.verify(jwtUtils.generateJwtToken(BenchmarkFixtures.user(1)));
+        } while (bloomFilter.mightContain(token.getId()));
+    }
+
+    @Benchmark
+    public boolean isRevoked() {
+        return revocationService.isRevoked(token);
+    }
+}
@@ -0,0 +1,95 @@
+package com.electronapp.authbackend.benchmark;
+
+import com.electronapp.authbackend.dto.UserImportResult;
+import com.electronapp.authbackend.entity.User;
+import com.electronapp.authbackend.service.UserImportService;
+import com.electronapp.authbackend.service.UserService;
+import com.electronapp.authbackend.service.UsernameAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write throughput against the embedded database: first-time OAuth2 signups (user and link in
+ * one transaction), username allocation, and bulk import rows (batched inserts). Every call
+ * writes new rows, so the tables grow during the run; run with -t to add contention.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SignupBenchmark {
+
+    private static final int IMPORT_ROWS = 500;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private UsernameAllocator usernameAllocator;
+    private UserImportService userImportService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkFixtures.application("signup");
+        userService = context.getBean(UserService.class);
+        usernameAllocator = context.getBean(UsernameAllocator.class);
+        userImportService = context.getBean(UserImportService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // Every signup gets its own username prefix
+    @Benchmark
+    public User signup() {
+        long n = sequence.incrementAndGet();
+        return userService.createOrUpdateOAuth2User("signup" + n + "@bench.test", "Bench", "User", null,
+                "google", "g-signup-" + n);
+    }
+
+    // All signups share the prefix "shared", so each one takes the next suffix of one counter row
+    @Benchmark
+    public User signupSharedPrefix() {
+        long n = sequence.incrementAndGet();
+        return userService.createOrUpdateOAuth2User("shared@host" + n + ".bench.test", "Bench", "User", null,
+                "google", "g-shared-" + n);
+    }
+
+    @Benchmark
+    public String allocateUsername() {
+        return usernameAllocator.allocate("allocated");
+    }
+
+    // Score is rows per second; each invocation imports one batch of new users with a link each
+    @Benchmark
+    @OperationsPerInvocation(IMPORT_ROWS)
+    public UserImportResult importRows() throws IOException {
+        StringBuilder csv = new StringBuilder("email,firstName,lastName,providerName,providerUserId\n");
+        for (int i = 0; i < IMPORT_ROWS; i++) {
+            long n = sequence.incrementAndGet();
+            csv.append("import").append(n).append("@bench.test,Bench,User,google,g-import-").append(n).append('\n');
+        }
+        return userImportService.importCsv(new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,57 @@
+package com.electronapp.authbackend.benchmark;
+
+import com.electronapp.authbackend.entity.User;
+import com.electronapp.authbackend.security.JwtUtils;
+import com.electronapp.authbackend.security.VerifiedToken;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access-token signing and signature verification (JwtUtils), per algorithm, without the cache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenBenchmark {
+
+    @Param({"HS256", "RS256", "ES256"})
+    public String algorithm;
+
+    private JwtUtils jwtUtils;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        MeterRegistry registry = BenchmarkFixtures.meterRegistry();
+        jwtUtils = BenchmarkFixtures.jwtUtils(algorithm,
+                BenchmarkFixtures.verifiedTokenCache(false, registry), registry);
+        user = BenchmarkFixtures.user(1);
+        token = jwtUtils.generateJwtToken(user);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken(user);
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtUtils.verify(token);
+    }
+}
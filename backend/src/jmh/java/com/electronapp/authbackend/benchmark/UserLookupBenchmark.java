@@ -0,0 +1,81 @@
+package com.electronapp.authbackend.benchmark;
+
+import com.electronapp.authbackend.entity.OAuth2Provider;
+import com.electronapp.authbackend.entity.User;
+import com.electronapp.authbackend.repository.OAuth2ProviderRepository;
+import com.electronapp.authbackend.repository.UserRepository;
+import com.electronapp.authbackend.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups on the OAuth2 callback and login paths against a table of a million users, each with
+ * one provider link. Every call picks a random user, so the index, not a hot row, is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class UserLookupBenchmark {
+
+    @Param({"1000000"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private OAuth2ProviderRepository oauth2ProviderRepository;
+    private UserRepository userRepository;
+    private UserService userService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkFixtures.application("lookup");
+        BenchmarkFixtures.seedUsers(context, users);
+        oauth2ProviderRepository = context.getBean(OAuth2ProviderRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // First query of every OAuth2 callback: the link and its user
+    @Benchmark
+    public Optional<OAuth2Provider> callbackLookup() {
+        return oauth2ProviderRepository.findWithUserByProviderNameAndProviderUserId("google", "g-user" + randomUser());
+    }
+
+    // Password login: the user and its providers by email
+    @Benchmark
+    public Optional<User> loginLookup() {
+        return userService.findByEmail("user" + randomUser() + "@bench.test");
+    }
+
+    // Collision check of username allocation
+    @Benchmark
+    public boolean usernameLookup() {
+        return userRepository.existsByUsername("user" + randomUser());
+    }
+
+    private int randomUser() {
+        return ThreadLocalRandom.current().nextInt(1, users + 1);
+    }
+}
@@ -0,0 +1,214 @@
+package com.electronapp.authbackend.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drives the Google login flow against a backend running with the loadtest profile:
+ * /oauth2/authorization/google -> stub authorize -> /login/oauth2/code/google -> /auth/me.
+ * Each worker runs flows back to back for the configured duration, cycling through the virtual
+ * users, so the first pass signs users up and later passes log existing users in.
+ * Reports flow throughput, per-step latency percentiles and Hibernate statement counts.
+ *
+ * Options (key=value): baseUrl, concurrency, users, warmupSeconds, durationSeconds
+ */
+public class OAuth2LoadTest {
+
+    private static final String[] STEPS = { "authorize", "provider", "callback", "me", "flow" };
+    private static final Pattern TOKEN = Pattern.compile("[?&]token=([^&]+)");
+    private static final Pattern NUMBER_FIELD = Pattern.compile("\"(\\w+)\":(\\d+)");
+
+    private final String baseUrl;
+    private final int concurrency;
+    private final int users;
+    private final long warmupNanos;
+    private final long durationNanos;
+    private final AtomicInteger nextUser = new AtomicInteger();
+    private final AtomicInteger errors = new AtomicInteger();
+
+    OAuth2LoadTest(Map<String, String> options) {
+        this.baseUrl = options.getOrDefault("baseUrl", "http://localhost:8080/api");
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        this.users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        this.warmupNanos = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmupSeconds", "10"))).toNanos();
+        this.durationNanos = Duration.ofSeconds(Long.parseLong(options.getOrDefault("durationSeconds", "30"))).toNanos();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                options.put(arg.substring(0, eq), arg.substring(eq + 1));
+            }
+        }
+        new OAuth2LoadTest(options).run();
+    }
+
+    void run() throws Exception {
+        System.out.printf("Load test: %s, concurrency=%d, users=%d, warmup=%ds, duration=%ds%n", baseUrl,
+            concurrency, users, Duration.ofNanos(warmupNanos).toSeconds(), Duration.ofNanos(durationNanos).toSeconds());
+
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        Map<String, Long> statsBefore = null;
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        List<Future<long[][]>> results = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            results.add(workers.submit(() -> runWorker(measureFrom, end)));
+        }
+        Thread.sleep(Math.max(0, Duration.ofNanos(measureFrom - System.nanoTime()).toMillis()));
+        statsBefore = fetchStats();
+        workers.shutdown();
+
+        List<long[]> samples = new ArrayList<>();
+        for (Future<long[][]> result : results) {
+            samples.addAll(Arrays.asList(result.get()));
+        }
+        Map<String, Long> statsAfter = fetchStats();
+        report(samples, statsBefore, statsAfter);
+    }
+
+    // One row per measured flow: nanoseconds per step, in STEPS order
+    private long[][] runWorker(long measureFrom, long end) {
+        CookieManager cookies = new CookieManager();
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .cookieHandler(cookies)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        List<long[]> samples = new ArrayList<>();
+        while (System.nanoTime() < end) {
+            // A fresh session per flow, like a new browser
+            cookies.getCookieStore().removeAll();
+            String user = "user" + Math.floorMod(nextUser.getAndIncrement(), users);
+            long flowStart = System.nanoTime();
+            try {
+                long[] sample = runFlow(client, user);
+                if (flowStart >= measureFrom) {
+                    samples.add(sample);
+                }
+            } catch (Exception e) {
+                if (errors.incrementAndGet() <= 5) {
+                    System.err.println("Flow failed for " + user + ": " + e.getMessage());
+                }
+            }
+        }
+        return samples.toArray(new long[0][]);
+    }
+
+    private long[] runFlow(HttpClient client, String user) throws IOException, InterruptedException {
+        long[] sample = new long[STEPS.length];
+        long flowStart = System.nanoTime();
+
+        long t = System.nanoTime();
+        String providerUrl = redirect(client, get(baseUrl + "/oauth2/authorization/google").build());
+        sample[0] = System.nanoTime() - t;
+
+        t = System.nanoTime();
+        String callbackUrl = redirect(client, get(providerUrl).header(StubOAuth2ProviderController.USER_HEADER, user).build());
+        sample[1] = System.nanoTime() - t;
+
+        t = System.nanoTime();
+        String frontendUrl = redirect(client, get(callbackUrl).build());
+        Matcher token = TOKEN.matcher(frontendUrl);
+        if (!token.find()) {
+            throw new IOException("Login did not return a token: " + frontendUrl);
+        }
+        sample[2] = System.nanoTime() - t;
+
+        t = System.nanoTime();
+        HttpResponse<String> me = client.send(get(baseUrl + "/auth/me")
+            .header("Authorization", "Bearer " + URLDecoder.decode(token.group(1), StandardCharsets.UTF_8))
+            .build(), HttpResponse.BodyHandlers.ofString());
+        if (me.statusCode() != 200 || !me.body().contains(user + "@loadtest.local")) {
+            throw new IOException("/auth/me returned " + me.statusCode());
+        }
+        sample[3] = System.nanoTime() - t;
+
+        sample[4] = System.nanoTime() - flowStart;
+        return sample;
+    }
+
+    private static HttpRequest.Builder get(String url) {
+        return HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET();
+    }
+
+    private static String redirect(HttpClient client, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 302) {
+            throw new IOException(request.uri().getPath() + " returned " + response.statusCode());
+        }
+        return response.headers().firstValue("Location")
+            .orElseThrow(() -> new IOException(request.uri().getPath() + " redirected without a Location"));
+    }
+
+    private Map<String, Long> fetchStats() throws IOException, InterruptedException {
+        HttpResponse<String> response = HttpClient.newHttpClient()
+            .send(get(baseUrl + "/loadtest/stats").build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("/loadtest/stats returned " + response.statusCode()
+                + "; is the backend running with --spring.profiles.active=loadtest?");
+        }
+        Map<String, Long> stats = new HashMap<>();
+        Matcher field = NUMBER_FIELD.matcher(response.body());
+        while (field.find()) {
+            stats.put(field.group(1), Long.parseLong(field.group(2)));
+        }
+        return stats;
+    }
+
+    private void report(List<long[]> samples, Map<String, Long> before, Map<String, Long> after) {
+        int flows = samples.size();
+        double seconds = durationNanos / 1e9;
+        System.out.printf("%nFlows: %d in %.0fs = %.1f flows/s, errors: %d%n", flows, seconds, flows / seconds, errors.get());
+        if (flows == 0) {
+            return;
+        }
+
+        System.out.printf("%-10s %10s %10s %10s %10s%n", "step", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (int step = 0; step < STEPS.length; step++) {
+            long[] latencies = new long[flows];
+            for (int i = 0; i < flows; i++) {
+                latencies[i] = samples.get(i)[step];
+            }
+            Arrays.sort(latencies);
+            System.out.printf("%-10s %10.1f %10.1f %10.1f %10.1f%n", STEPS[step], percentile(latencies, 0.50),
+                percentile(latencies, 0.90), percentile(latencies, 0.99), latencies[flows - 1] / 1e6);
+        }
+
+        // Flows still in flight at either snapshot make these approximate
+        System.out.printf("%n%-20s %12s %12s%n", "hibernate", "total", "per flow");
+        for (String key : new String[] { "preparedStatements", "queries", "entityLoads", "entityInserts",
+                "entityUpdates", "transactions" }) {
+            long delta = after.getOrDefault(key, 0L) - before.getOrDefault(key, 0L);
+            System.out.printf("%-20s %12d %12.2f%n", key, delta, (double) delta / flows);
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
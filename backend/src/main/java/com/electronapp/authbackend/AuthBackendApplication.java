@@ -2,8 +2,12 @@ package com.electronapp.authbackend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
 public class AuthBackendApplication {
     public static void main(String[] args) {
         SpringApplication.run(AuthBackendApplication.class, args);
@@ -2,9 +2,14 @@ package com.electronapp.authbackend.config;
 
 import com.electronapp.authbackend.security.JwtAuthenticationEntryPoint;
 import com.electronapp.authbackend.security.JwtAuthenticationFilter;
+import com.electronapp.authbackend.security.OAuth2CallbackMetricsFilter;
+import com.electronapp.authbackend.security.RateLimitFilter;
 import com.electronapp.authbackend.service.OAuth2AuthenticationSuccessHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -13,6 +18,8 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.oauth2.client.web.OAuth2AuthorizationRequestRedirectFilter;
+import org.springframework.security.oauth2.client.web.OAuth2LoginAuthenticationFilter;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -42,8 +49,18 @@ public class SecurityConfig {
     }
     
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter();
+    }
+    
+    @Bean
+    public OAuth2CallbackMetricsFilter oauth2CallbackMetricsFilter() {
+        return new OAuth2CallbackMetricsFilter();
+    }
+    
+    @Bean
+    public static PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
     
     @Bean
@@ -54,13 +71,20 @@ public class SecurityConfig {
             .exceptionHandling(ex -> ex.authenticationEntryPoint(jwtAuthenticationEntryPoint))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(authz -> authz
-                .requestMatchers("/auth/**", "/oauth2/**", "/h2-console/**", "/test/public").permitAll()
+                // Probes and scrapers carry no token; in production these are reachable only on the
+                // management port (see application-prod.properties)
+                .requestMatchers(EndpointRequest.to(HealthEndpoint.class, PrometheusScrapeEndpoint.class)).permitAll()
+                .requestMatchers("/auth/**", "/oauth2/**", "/h2-console/**", "/test/public", "/.well-known/**", "/error").permitAll()
+                .requestMatchers("/admin/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .oauth2Login(oauth2 -> oauth2
                 .successHandler(oAuth2AuthenticationSuccessHandler)
             )
             .headers(headers -> headers.frameOptions().disable()) // For H2 console (development only)
+            // Over-rate clients are turned away before the OAuth2 filters or the login endpoint do any work
+            .addFilterBefore(rateLimitFilter(), OAuth2AuthorizationRequestRedirectFilter.class)
+            .addFilterBefore(oauth2CallbackMetricsFilter(), OAuth2LoginAuthenticationFilter.class)
             .addFilterBefore(jwtAuthenticationFilter(), UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
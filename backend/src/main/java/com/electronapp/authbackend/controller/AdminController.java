@@ -0,0 +1,102 @@
+package com.electronapp.authbackend.controller;
+
+import com.electronapp.authbackend.controller.AuthController.MessageResponse;
+import com.electronapp.authbackend.dto.RoleUpdateRequest;
+import com.electronapp.authbackend.dto.UserImportResult;
+import com.electronapp.authbackend.entity.User;
+import com.electronapp.authbackend.service.UserExportService;
+import com.electronapp.authbackend.service.UserImportService;
+import com.electronapp.authbackend.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Administration endpoints; every route requires the ADMIN role
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserExportService userExportService;
+    
+    @Autowired
+    private UserImportService userImportService;
+    
+    /**
+     * Export users as NDJSON, one user with its OAuth2 providers per line, in id order.
+     * Page through large exports by passing the id of the last line as {@code afterId}.
+     * Written straight to the response on the request thread, so long exports are not cut off
+     * by the async request timeout.
+     */
+    @GetMapping("/users/export")
+    public void exportUsers(@RequestParam(defaultValue = "0") long afterId,
+                            @RequestParam(required = false) Long limit,
+                            HttpServletResponse response) throws IOException {
+        if (limit != null && limit < 0) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "limit must not be negative");
+            return;
+        }
+        
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        userExportService.export(afterId, limit != null ? limit : Long.MAX_VALUE, response.getOutputStream());
+    }
+    
+    /**
+     * Bulk import users from CSV with a header row; the body is read as a stream
+     */
+    @PostMapping(value = "/users/import", consumes = "text/csv")
+    public ResponseEntity<?> importCsv(HttpServletRequest request) {
+        try {
+            UserImportResult result = userImportService.importCsv(request.getInputStream());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Bulk import users from NDJSON; the body is read as a stream
+     */
+    @PostMapping(value = "/users/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<?> importNdjson(HttpServletRequest request) {
+        try {
+            UserImportResult result = userImportService.importNdjson(request.getInputStream());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Replace the roles of a user
+     */
+    @PutMapping("/users/{email}/roles")
+    public ResponseEntity<?> updateRoles(@PathVariable String email, @RequestBody RoleUpdateRequest roleRequest) {
+        if (roleRequest.getRoles() == null) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: roles are required"));
+        }
+        
+        Optional<User> user = userService.updateRoles(email, roleRequest.getRoles());
+        if (user.isEmpty()) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: User not found!"));
+        }
+        
+        return ResponseEntity.ok(new MessageResponse("Roles updated successfully"));
+    }
+}
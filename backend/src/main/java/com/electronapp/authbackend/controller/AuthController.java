@@ -2,16 +2,31 @@ package com.electronapp.authbackend.controller;
 
 import com.electronapp.authbackend.dto.AuthResponse;
 import com.electronapp.authbackend.dto.LoginRequest;
+import com.electronapp.authbackend.dto.RefreshTokenRequest;
 import com.electronapp.authbackend.dto.UserDTO;
 import com.electronapp.authbackend.entity.User;
 import com.electronapp.authbackend.security.JwtUtils;
+import com.electronapp.authbackend.security.LoginRateLimiter;
+import com.electronapp.authbackend.security.VerifiedToken;
+import com.electronapp.authbackend.service.KnownEmailIndex;
+import com.electronapp.authbackend.service.PasswordHashingService;
+import com.electronapp.authbackend.service.RefreshTokenService;
+import com.electronapp.authbackend.service.TokenRevocationService;
 import com.electronapp.authbackend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Authentication Controller for login and registration
@@ -28,35 +43,131 @@ public class AuthController {
     private JwtUtils jwtUtils;
     
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+    
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+    
+    @Autowired
+    private KnownEmailIndex knownEmailIndex;
+    
+    // Finishes logins after the password check, so the hashing pool only ever runs BCrypt
+    @Autowired
+    @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    private AsyncTaskExecutor loginCompletionExecutor;
     
     /**
      * Login with email and password
      */
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> login(@RequestBody LoginRequest loginRequest) {
         try {
-            Optional<User> userOpt = userService.findByEmail(loginRequest.getEmail());
+            String email = loginRequest.getEmail();
+            
+            // Per-account limit (per-client limits are applied by RateLimitFilter): stops one
+            // account being guessed from many addresses
+            if (email != null) {
+                long retryAfter = loginRateLimiter.acquireForAccount(email);
+                if (retryAfter > 0) {
+                    return CompletableFuture.completedFuture(tooManyAttempts(retryAfter));
+                }
+            }
+            
+            // Emails missing from the index are unknown without asking the database
+            Optional<User> userOpt = email != null && knownEmailIndex.mightContain(email)
+                ? userService.findByEmail(email)
+                : Optional.empty();
             
             if (userOpt.isEmpty()) {
-                return ResponseEntity.badRequest()
-                    .body(new MessageResponse("Error: User not found!"));
+                // Same BCrypt work and answer as a wrong password, so unknown emails cannot be told apart
+                return passwordHashingService.verifyAgainstDummy(loginRequest.getPassword())
+                    .<ResponseEntity<?>>thenApply(check -> invalidCredentials())
+                    .exceptionally(e -> invalidCredentials());
             }
             
             User user = userOpt.get();
             
             // For now, we'll allow login without password validation since OAuth2 users might not have passwords
             // In a real application, you'd want to check if the user has a password set
-            if (user.getPasswordHash() != null && 
-                !passwordEncoder.matches(loginRequest.getPassword(), user.getPasswordHash())) {
-                return ResponseEntity.badRequest()
-                    .body(new MessageResponse("Error: Invalid credentials!"));
+            if (user.getPasswordHash() == null) {
+                return CompletableFuture.completedFuture(authenticated(user));
+            }
+            
+            // BCrypt runs on the hashing pool and the servlet thread is released until it completes;
+            // the hash upgrade and token issue (database writes) then run on the application task executor
+            return passwordHashingService.verify(loginRequest.getPassword(), user.getPasswordHash())
+                .<ResponseEntity<?>>thenApplyAsync(check -> {
+                    if (!check.matches()) {
+                        return invalidCredentials();
+                    }
+                    if (check.getUpgradedHash() != null) {
+                        userService.updatePasswordHash(user, check.getUpgradedHash());
+                    }
+                    return authenticated(user);
+                }, loginCompletionExecutor)
+                .exceptionally(e -> ResponseEntity.badRequest()
+                    .body(new MessageResponse("Error: " + unwrap(e).getMessage())));
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyAttempts(1));
+        } catch (Exception e) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: " + e.getMessage())));
+        }
+    }
+    
+    /**
+     * Exchange a refresh token for a new access/refresh token pair
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshTokenRequest refreshRequest) {
+        try {
+            Optional<RefreshTokenService.Rotation> rotation = refreshRequest.getRefreshToken() == null
+                ? Optional.empty()
+                : refreshTokenService.rotate(refreshRequest.getRefreshToken());
+            
+            if (rotation.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new MessageResponse("Error: Invalid refresh token"));
             }
             
-            String jwt = jwtUtils.generateJwtToken(user.getEmail());
-            UserDTO userDTO = userService.convertToUserDTO(user);
+            User user = rotation.get().getUser();
+            String jwt = jwtUtils.generateJwtToken(user);
+            Optional<UserDTO> userDTO = userService.getUserProfile(user.getEmail());
             
-            return ResponseEntity.ok(new AuthResponse(jwt, userDTO));
+            return ResponseEntity.ok(new AuthResponse(jwt, rotation.get().getRefreshToken(), userDTO.orElse(null)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                .body(new MessageResponse("Error: " + e.getMessage()));
+        }
+    }
+    
+    /**
+     * Logout: revoke the refresh token family given in the body and, if the request carries
+     * a valid access token, that access token too. The refresh token is revoked even when the
+     * access token has already expired, so a client can always end its session.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@AuthenticationPrincipal VerifiedToken principal,
+                                    @RequestBody(required = false) RefreshTokenRequest logoutRequest) {
+        String refreshToken = logoutRequest != null ? logoutRequest.getRefreshToken() : null;
+        if (principal == null && refreshToken == null) {
+            return unauthorized();
+        }
+        
+        try {
+            if (refreshToken != null) {
+                refreshTokenService.revoke(refreshToken);
+            }
+            if (principal != null) {
+                tokenRevocationService.revoke(principal);
+            }
+            return ResponseEntity.ok(new MessageResponse("Logged out successfully"));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(new MessageResponse("Error: " + e.getMessage()));
@@ -67,19 +178,19 @@ public class AuthController {
      * Get current user info
      */
     @GetMapping("/me")
-    public ResponseEntity<?> getCurrentUser(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<?> getCurrentUser(@AuthenticationPrincipal VerifiedToken principal) {
+        if (principal == null) {
+            return unauthorized();
+        }
+        
         try {
-            String token = authHeader.substring(7); // Remove "Bearer " prefix
-            String email = jwtUtils.getEmailFromJwtToken(token);
-            
-            Optional<User> userOpt = userService.findByEmail(email);
-            if (userOpt.isEmpty()) {
+            Optional<UserDTO> userDTO = userService.getUserProfile(principal.getEmail());
+            if (userDTO.isEmpty()) {
                 return ResponseEntity.badRequest()
                     .body(new MessageResponse("Error: User not found!"));
             }
             
-            UserDTO userDTO = userService.convertToUserDTO(userOpt.get());
-            return ResponseEntity.ok(userDTO);
+            return ResponseEntity.ok(userDTO.get());
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                 .body(new MessageResponse("Error: " + e.getMessage()));
@@ -92,12 +203,13 @@ public class AuthController {
     @DeleteMapping("/oauth2/{provider}")
     public ResponseEntity<?> disconnectOAuth2Provider(
             @PathVariable String provider,
-            @RequestHeader("Authorization") String authHeader) {
+            @AuthenticationPrincipal VerifiedToken principal) {
+        if (principal == null) {
+            return unauthorized();
+        }
+        
         try {
-            String token = authHeader.substring(7);
-            String email = jwtUtils.getEmailFromJwtToken(token);
-            
-            boolean success = userService.disconnectOAuth2Provider(email, provider);
+            boolean success = userService.disconnectOAuth2Provider(principal.getEmail(), provider);
             
             if (success) {
                 return ResponseEntity.ok(new MessageResponse("OAuth2 provider disconnected successfully"));
@@ -111,6 +223,34 @@ public class AuthController {
         }
     }
     
+    private ResponseEntity<AuthResponse> authenticated(User user) {
+        String jwt = jwtUtils.generateJwtToken(user);
+        String refreshToken = refreshTokenService.issue(user);
+        UserDTO userDTO = userService.convertToUserDTO(user);
+        
+        return ResponseEntity.ok(new AuthResponse(jwt, refreshToken, userDTO));
+    }
+    
+    private static ResponseEntity<?> invalidCredentials() {
+        return ResponseEntity.badRequest()
+            .body(new MessageResponse("Error: Invalid credentials!"));
+    }
+    
+    private static ResponseEntity<?> tooManyAttempts(long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+            .body(new MessageResponse("Error: Too many login attempts, please retry shortly"));
+    }
+    
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+    
+    private ResponseEntity<MessageResponse> unauthorized() {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+            .body(new MessageResponse("Error: Unauthorized"));
+    }
+    
     /**
      * Simple message response class
      */
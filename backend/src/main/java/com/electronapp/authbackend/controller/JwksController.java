@@ -0,0 +1,57 @@
+package com.electronapp.authbackend.controller;
+
+import com.electronapp.authbackend.security.JwtUtils;
+import com.electronapp.authbackend.security.SigningKeyRing;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the public keys used to verify access tokens
+ */
+@RestController
+public class JwksController {
+
+    // Keys are published a full rotation interval before they sign, and the interval is at least
+    // this long, so a cached copy always lists the key of any token it will be asked to verify
+    @Value("${jwt.jwks.max-age-ms:300000}")
+    private long jwksMaxAgeMs;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private CacheControl jwksCacheControl;
+
+    @PostConstruct
+    public void init() {
+        jwksCacheControl = CacheControl.maxAge(jwksMaxAgeMs, TimeUnit.MILLISECONDS).cachePublic();
+    }
+
+    /**
+     * JWKS document; the body is serialized once per key rotation and revalidated by ETag
+     */
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> jwks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        SigningKeyRing ring = jwtUtils.getKeyRing();
+        if (ring.getJwksEtag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(ring.getJwksEtag())
+                    .cacheControl(jwksCacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(ring.getJwksEtag())
+                .cacheControl(jwksCacheControl)
+                .body(ring.getJwks());
+    }
+}
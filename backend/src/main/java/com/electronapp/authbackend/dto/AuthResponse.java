@@ -5,6 +5,7 @@ package com.electronapp.authbackend.dto;
  */
 public class AuthResponse {
     private String token;
+    private String refreshToken;
     private String type = "Bearer";
     private UserDTO user;
     
@@ -13,10 +14,18 @@ public class AuthResponse {
         this.user = user;
     }
     
+    public AuthResponse(String token, String refreshToken, UserDTO user) {
+        this(token, user);
+        this.refreshToken = refreshToken;
+    }
+    
     // Getters and Setters
     public String getToken() { return token; }
     public void setToken(String token) { this.token = token; }
     
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+    
     public String getType() { return type; }
     public void setType(String type) { this.type = type; }
     
@@ -0,0 +1,19 @@
+package com.electronapp.authbackend.dto;
+
+/**
+ * Request DTO for exchanging a refresh token
+ */
+public class RefreshTokenRequest {
+    private String refreshToken;
+    
+    // Constructors
+    public RefreshTokenRequest() {}
+    
+    public RefreshTokenRequest(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+    
+    // Getters and Setters
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+}
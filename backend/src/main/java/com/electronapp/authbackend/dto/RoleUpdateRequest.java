@@ -0,0 +1,23 @@
+package com.electronapp.authbackend.dto;
+
+import com.electronapp.authbackend.entity.Role;
+
+import java.util.Set;
+
+/**
+ * Request DTO for replacing the roles of a user
+ */
+public class RoleUpdateRequest {
+    private Set<Role> roles;
+    
+    // Constructors
+    public RoleUpdateRequest() {}
+    
+    public RoleUpdateRequest(Set<Role> roles) {
+        this.roles = roles;
+    }
+    
+    // Getters and Setters
+    public Set<Role> getRoles() { return roles; }
+    public void setRoles(Set<Role> roles) { this.roles = roles; }
+}
@@ -0,0 +1,47 @@
+package com.electronapp.authbackend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One row of the user export: a user joined with one of its OAuth2 providers.
+ * Users without providers appear once with null provider fields.
+ */
+public class UserExportRow {
+    private final Long id;
+    private final String email;
+    private final String username;
+    private final String firstName;
+    private final String lastName;
+    private final LocalDateTime createdAt;
+    private final String providerName;
+    private final String providerUserId;
+    
+    public UserExportRow(Long id, String email, String username, String firstName, String lastName,
+                         LocalDateTime createdAt, String providerName, String providerUserId) {
+        this.id = id;
+        this.email = email;
+        this.username = username;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.createdAt = createdAt;
+        this.providerName = providerName;
+        this.providerUserId = providerUserId;
+    }
+    
+    // Getters
+    public Long getId() { return id; }
+    
+    public String getEmail() { return email; }
+    
+    public String getUsername() { return username; }
+    
+    public String getFirstName() { return firstName; }
+    
+    public String getLastName() { return lastName; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    
+    public String getProviderName() { return providerName; }
+    
+    public String getProviderUserId() { return providerUserId; }
+}
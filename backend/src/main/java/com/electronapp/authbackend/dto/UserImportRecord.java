@@ -0,0 +1,38 @@
+package com.electronapp.authbackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * One user to import, optionally with an OAuth2 provider link
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserImportRecord {
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String avatarUrl;
+    private String providerName;
+    private String providerUserId;
+    
+    // Constructors
+    public UserImportRecord() {}
+    
+    // Getters and Setters
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+    
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+    
+    public String getAvatarUrl() { return avatarUrl; }
+    public void setAvatarUrl(String avatarUrl) { this.avatarUrl = avatarUrl; }
+    
+    public String getProviderName() { return providerName; }
+    public void setProviderName(String providerName) { this.providerName = providerName; }
+    
+    public String getProviderUserId() { return providerUserId; }
+    public void setProviderUserId(String providerUserId) { this.providerUserId = providerUserId; }
+}
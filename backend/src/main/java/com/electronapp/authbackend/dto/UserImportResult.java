@@ -0,0 +1,41 @@
+package com.electronapp.authbackend.dto;
+
+/**
+ * Outcome of a bulk user import
+ */
+public class UserImportResult {
+    private long rowsRead;
+    private long usersCreated;
+    private long providersLinked;
+    private long rowsSkipped;
+    private long rowsInvalid;
+    private long elapsedMs;
+    private long rowsPerSecond;
+    
+    // Constructors
+    public UserImportResult() {}
+    
+    // Getters and Setters
+    public long getRowsRead() { return rowsRead; }
+    public void setRowsRead(long rowsRead) { this.rowsRead = rowsRead; }
+    
+    public long getUsersCreated() { return usersCreated; }
+    public void setUsersCreated(long usersCreated) { this.usersCreated = usersCreated; }
+    
+    public long getProvidersLinked() { return providersLinked; }
+    public void setProvidersLinked(long providersLinked) { this.providersLinked = providersLinked; }
+    
+    // Rows whose user or provider link already existed
+    public long getRowsSkipped() { return rowsSkipped; }
+    public void setRowsSkipped(long rowsSkipped) { this.rowsSkipped = rowsSkipped; }
+    
+    // Rows without a usable email or with an incomplete provider link
+    public long getRowsInvalid() { return rowsInvalid; }
+    public void setRowsInvalid(long rowsInvalid) { this.rowsInvalid = rowsInvalid; }
+    
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+    
+    public long getRowsPerSecond() { return rowsPerSecond; }
+    public void setRowsPerSecond(long rowsPerSecond) { this.rowsPerSecond = rowsPerSecond; }
+}
@@ -7,10 +7,14 @@ import java.time.LocalDateTime;
  * OAuth2 provider information linked to users
  */
 @Entity
-@Table(name = "oauth2_providers")
+@Table(name = "oauth2_providers", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_oauth2_providers_provider_user", columnNames = {"provider_user_id", "provider_name"}),
+    @UniqueConstraint(name = "uq_oauth2_providers_user_provider", columnNames = {"user_id", "provider_name"})
+})
 public class OAuth2Provider {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "oauth2_provider_seq")
+    @SequenceGenerator(name = "oauth2_provider_seq", sequenceName = "oauth2_providers_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,53 @@
+package com.electronapp.authbackend.entity;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Roles a user can hold. Stored on the user and in access tokens as a bitmask of
+ * {@code 1 << ordinal()}, so new roles must only ever be appended.
+ */
+public enum Role {
+    USER,
+    ADMIN;
+
+    private static final Role[] VALUES = values();
+
+    /**
+     * Mask with every known role bit set
+     */
+    public static final int ALL_MASK = (1 << VALUES.length) - 1;
+
+    public int mask() {
+        return 1 << ordinal();
+    }
+
+    public String authority() {
+        return "ROLE_" + name();
+    }
+
+    /**
+     * Encode a set of roles as a bitmask
+     */
+    public static int maskOf(Collection<Role> roles) {
+        int mask = 0;
+        for (Role role : roles) {
+            mask |= role.mask();
+        }
+        return mask;
+    }
+
+    /**
+     * Decode a bitmask, ignoring bits of unknown roles
+     */
+    public static Set<Role> fromMask(int mask) {
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        for (Role role : VALUES) {
+            if ((mask & role.mask()) != 0) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+}
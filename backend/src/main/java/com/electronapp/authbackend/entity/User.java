@@ -8,13 +8,17 @@ import java.util.Set;
  * User entity representing authenticated users
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+    @UniqueConstraint(name = "uq_users_email", columnNames = "email"),
+    @UniqueConstraint(name = "uq_users_username", columnNames = "username")
+})
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
     
     private String username;
@@ -25,6 +29,14 @@ public class User {
     @Column(name = "password_hash")
     private String passwordHash; // For email/password login
     
+    // Bitmask of Role values, embedded in access tokens
+    @Column(nullable = false)
+    private int roles = Role.USER.mask();
+    
+    // Incremented on every role change so tokens carrying older roles are rejected
+    @Column(name = "roles_version", nullable = false)
+    private int rolesVersion;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -70,6 +82,12 @@ public class User {
     public String getPasswordHash() { return passwordHash; }
     public void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
     
+    public int getRoles() { return roles; }
+    public void setRoles(int roles) { this.roles = roles; }
+    
+    public int getRolesVersion() { return rolesVersion; }
+    public void setRolesVersion(int rolesVersion) { this.rolesVersion = rolesVersion; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
@@ -0,0 +1,32 @@
+package com.electronapp.authbackend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * Next free numeric suffix for usernames derived from the same prefix
+ */
+@Entity
+@Table(name = "username_sequences")
+public class UsernameSequence {
+    @Id
+    @Column(name = "prefix")
+    private String prefix;
+    
+    @Column(name = "next_suffix", nullable = false)
+    private int nextSuffix;
+    
+    // Constructors
+    public UsernameSequence() {}
+    
+    public UsernameSequence(String prefix) {
+        this.prefix = prefix;
+        this.nextSuffix = 0;
+    }
+    
+    // Getters and Setters
+    public String getPrefix() { return prefix; }
+    public void setPrefix(String prefix) { this.prefix = prefix; }
+    
+    public int getNextSuffix() { return nextSuffix; }
+    public void setNextSuffix(int nextSuffix) { this.nextSuffix = nextSuffix; }
+}
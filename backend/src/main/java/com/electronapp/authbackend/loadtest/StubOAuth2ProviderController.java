@@ -0,0 +1,96 @@
+package com.electronapp.authbackend.loadtest;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Stand-in for Google's authorization, token and userinfo endpoints in the loadtest profile.
+ * Stateless: the authorization code and the access token carry the user id chosen by the load
+ * driver (X-Loadtest-User header), so any number of virtual users need no server-side storage.
+ */
+@RestController
+@RequestMapping("/loadtest")
+@Profile("loadtest")
+public class StubOAuth2ProviderController {
+    
+    public static final String USER_HEADER = "X-Loadtest-User";
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    /**
+     * Authorization endpoint: approves at once and redirects back with a code
+     */
+    @GetMapping("/oauth2/authorize")
+    public ResponseEntity<Void> authorize(@RequestParam("redirect_uri") String redirectUri,
+                                          @RequestParam("state") String state,
+                                          @RequestHeader(value = USER_HEADER, defaultValue = "user0") String user) {
+        URI location = UriComponentsBuilder.fromUriString(redirectUri)
+            .queryParam("code", user + "." + UUID.randomUUID())
+            .queryParam("state", state)
+            .build().toUri();
+        return ResponseEntity.status(HttpStatus.FOUND).location(location).build();
+    }
+    
+    /**
+     * Token endpoint: exchanges a code for an access token naming the same user
+     */
+    @PostMapping("/oauth2/token")
+    public Map<String, Object> token(@RequestParam("code") String code) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("access_token", code);
+        response.put("token_type", "Bearer");
+        response.put("expires_in", 3600);
+        response.put("scope", "profile email");
+        return response;
+    }
+    
+    /**
+     * Userinfo endpoint, with Google's attribute names
+     */
+    @GetMapping("/oauth2/userinfo")
+    public ResponseEntity<Map<String, Object>> userInfo(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        if (!authorization.startsWith("Bearer ")) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        String accessToken = authorization.substring(7);
+        String user = accessToken.substring(0, Math.max(0, accessToken.indexOf('.')));
+        
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("sub", "loadtest-" + user);
+        attributes.put("email", user + "@loadtest.local");
+        attributes.put("given_name", user);
+        attributes.put("family_name", "Loadtest");
+        attributes.put("picture", "https://example.com/avatars/" + user + ".png");
+        return ResponseEntity.ok(attributes);
+    }
+    
+    /**
+     * Hibernate statement counters since startup, read by the load driver before and after a run
+     */
+    @GetMapping("/stats")
+    public Map<String, Long> stats() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("preparedStatements", statistics.getPrepareStatementCount());
+        stats.put("queries", statistics.getQueryExecutionCount());
+        stats.put("entityLoads", statistics.getEntityLoadCount());
+        stats.put("entityInserts", statistics.getEntityInsertCount());
+        stats.put("entityUpdates", statistics.getEntityUpdateCount());
+        stats.put("transactions", statistics.getTransactionCount());
+        return stats;
+    }
+}
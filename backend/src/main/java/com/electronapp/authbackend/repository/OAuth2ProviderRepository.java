@@ -2,9 +2,14 @@ package com.electronapp.authbackend.repository;
 
 import com.electronapp.authbackend.entity.OAuth2Provider;
 import com.electronapp.authbackend.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -13,6 +18,17 @@ import java.util.Optional;
 @Repository
 public interface OAuth2ProviderRepository extends JpaRepository<OAuth2Provider, Long> {
     Optional<OAuth2Provider> findByProviderNameAndProviderUserId(String providerName, String providerUserId);
+    
+    // Loads the provider link together with its user in a single query
+    @EntityGraph(attributePaths = "user")
+    Optional<OAuth2Provider> findWithUserByProviderNameAndProviderUserId(String providerName, String providerUserId);
+    
+    // Which of the given external ids are already linked for a provider (bulk import)
+    @Query("select p.providerUserId from OAuth2Provider p "
+         + "where p.providerName = :providerName and p.providerUserId in :providerUserIds")
+    List<String> findLinkedProviderUserIds(@Param("providerName") String providerName,
+                                           @Param("providerUserIds") Collection<String> providerUserIds);
+    
     boolean existsByProviderNameAndProviderUserId(String providerName, String providerUserId);
     Optional<OAuth2Provider> findByUserAndProviderName(User user, String providerName);
 }
\ No newline at end of file
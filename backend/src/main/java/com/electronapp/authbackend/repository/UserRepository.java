@@ -1,10 +1,21 @@
 package com.electronapp.authbackend.repository;
 
+import com.electronapp.authbackend.dto.UserExportRow;
 import com.electronapp.authbackend.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for User entity
@@ -12,7 +23,40 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+    
+    // Loads the user and its OAuth2 providers in a single query
+    @EntityGraph(attributePaths = "oauth2Providers")
+    Optional<User> findWithProvidersByEmail(String email);
+    
+    // Batch lookup for the bulk import, providers included
+    @EntityGraph(attributePaths = "oauth2Providers")
+    List<User> findWithProvidersByEmailIn(Collection<String> emails);
+    
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+    
     Optional<User> findByUsername(String username);
     boolean existsByEmail(String email);
     boolean existsByUsername(String username);
+    
+    // Every stored email, read in fetch-size chunks. Must be consumed inside a transaction.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select u.email from User u")
+    Stream<String> streamAllEmails();
+    
+    // (email, rolesVersion) pairs of users whose roles have changed at least once
+    @Query("select u.email, u.rolesVersion from User u where u.rolesVersion > 0")
+    List<Object[]> findChangedRoleVersions();
+    
+    // Ids of the next users after the given id, in id order; the page sets the row limit
+    @Query("select u.id from User u where u.id > :afterId order by u.id")
+    List<Long> findIdsAfter(@Param("afterId") long afterId, Pageable page);
+    
+    // Users in (afterId, lastId] joined with their providers, as unmanaged projections; rows of
+    // one user are adjacent
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("select new com.electronapp.authbackend.dto.UserExportRow(u.id, u.email, u.username, u.firstName, "
+         + "u.lastName, u.createdAt, p.providerName, p.providerUserId) "
+         + "from User u left join u.oauth2Providers p where u.id > :afterId and u.id <= :lastId order by u.id")
+    List<UserExportRow> findExportRows(@Param("afterId") long afterId, @Param("lastId") long lastId);
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.electronapp.authbackend.repository;
+
+import com.electronapp.authbackend.entity.UsernameSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for UsernameSequence entity
+ */
+@Repository
+public interface UsernameSequenceRepository extends JpaRepository<UsernameSequence, String> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UsernameSequence s where s.prefix = :prefix")
+    Optional<UsernameSequence> findForUpdate(@Param("prefix") String prefix);
+    
+    // Locks rows in prefix order so concurrent bulk allocations cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from UsernameSequence s where s.prefix in :prefixes order by s.prefix")
+    List<UsernameSequence> findAllForUpdate(@Param("prefixes") Collection<String> prefixes);
+    
+    @Modifying
+    @Query(value = "insert into username_sequences (prefix, next_suffix) values (:prefix, 0)", nativeQuery = true)
+    void insertPrefix(@Param("prefix") String prefix);
+}
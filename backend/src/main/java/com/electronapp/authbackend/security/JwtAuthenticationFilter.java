@@ -1,20 +1,19 @@
 package com.electronapp.authbackend.security;
 
+import com.electronapp.authbackend.service.RoleVersionRegistry;
+import com.electronapp.authbackend.service.TokenRevocationService;
 import com.electronapp.authbackend.service.UserService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.ArrayList;
 
 /**
  * JWT Authentication Filter
@@ -27,28 +26,52 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+    
+    @Autowired
+    private RoleVersionRegistry roleVersionRegistry;
+    
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String email = jwtUtils.getEmailFromJwtToken(jwt);
-                
-                // Create authentication token
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(email, null, new ArrayList<>());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            VerifiedToken verifiedToken = jwt != null ? verify(jwt) : null;
+            // Tokens issued before a role change are refused so the client refreshes them
+            if (verifiedToken != null && roleVersionRegistry.isCurrent(verifiedToken)
+                    && !tokenRevocationService.isRevoked(verifiedToken)) {
+                // Authorities come from the verified token; details are built on first use
+                HttpSession session = request.getSession(false);
+                JwtAuthenticationToken authentication = new JwtAuthenticationToken(
+                    verifiedToken, request.getRemoteAddr(), session != null ? session.getId() : null);
                 
                 SecurityContextHolder.getContext().setAuthentication(authentication);
             }
         } catch (Exception e) {
-            logger.error("Cannot set user authentication: {}", e);
+            // Invalid tokens are counted by TokenRejectionMetrics; anything reaching here is unexpected
+            if (logger.isDebugEnabled()) {
+                logger.debug("Cannot set user authentication", e);
+            }
         }
         
         filterChain.doFilter(request, response);
     }
     
+    private VerifiedToken verify(String jwt) {
+        VerifiedToken verifiedToken = verifiedTokenCache.get(jwt);
+        if (verifiedToken == null) {
+            verifiedToken = jwtUtils.verify(jwt);
+            if (verifiedToken != null) {
+                verifiedTokenCache.put(jwt, verifiedToken);
+            }
+        }
+        return verifiedToken;
+    }
+    
     private String parseJwt(HttpServletRequest request) {
         String headerAuth = request.getHeader("Authorization");
         
@@ -0,0 +1,62 @@
+package com.electronapp.authbackend.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.util.Collection;
+
+/**
+ * Authentication for a request carrying a verified JWT.
+ * Authorities come straight from the (cached) verified token and request details are only
+ * built if something asks for them, so the filter allocates nothing but this object.
+ */
+public class JwtAuthenticationToken implements Authentication {
+    private final VerifiedToken token;
+    private final String remoteAddress;
+    private final String sessionId;
+    private boolean authenticated = true;
+    private transient WebAuthenticationDetails details;
+
+    public JwtAuthenticationToken(VerifiedToken token, String remoteAddress, String sessionId) {
+        this.token = token;
+        this.remoteAddress = remoteAddress;
+        this.sessionId = sessionId;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() { return token.getAuthorities(); }
+
+    @Override
+    public Object getCredentials() { return null; }
+
+    @Override
+    public Object getDetails() {
+        if (details == null) {
+            details = new WebAuthenticationDetails(remoteAddress, sessionId);
+        }
+        return details;
+    }
+
+    @Override
+    public VerifiedToken getPrincipal() { return token; }
+
+    @Override
+    public boolean isAuthenticated() { return authenticated; }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        if (isAuthenticated) {
+            throw new IllegalArgumentException("Cannot mark a token as trusted after construction");
+        }
+        this.authenticated = false;
+    }
+
+    @Override
+    public String getName() { return token.getName(); }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [Principal=" + token + ", Authorities=" + token.getAuthorities() + "]";
+    }
+}
@@ -1,83 +1,188 @@
 package com.electronapp.authbackend.security;
 
+import com.electronapp.authbackend.entity.User;
+import com.electronapp.authbackend.security.TokenRejectionMetrics.Reason;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.io.DecodingException;
+import io.jsonwebtoken.io.DeserializationException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * JWT utility class for token generation and validation
  */
 @Component
 public class JwtUtils {
-    
+
+    // Role bitmask (see Role) and the user's role version at issue time
+    public static final String CLAIM_ROLES = "rol";
+    public static final String CLAIM_ROLES_VERSION = "rv";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
-    
+
     @Value("${jwt.expiration}")
     private int jwtExpirationMs;
-    
+
+    @Value("${jwt.algorithm:HS256}")
+    private String algorithmName;
+
+    @Value("${jwt.key-rotation-interval-ms:86400000}")
+    private long keyRotationIntervalMs;
+
+    @Value("${jwt.jwks.max-age-ms:300000}")
+    private long jwksMaxAgeMs;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRejectionMetrics rejectionMetrics;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Registered up front: recording on the request path is a lookup-free, allocation-free call
+    private Timer issueTimer;
+    private Timer verifyValidTimer;
+    private Timer verifyInvalidTimer;
+
+    // Keys and parser are immutable and thread-safe, so they are built once and
+    // swapped together when the keys rotate
+    private volatile SigningKeyRing keyRing;
+
+    @PostConstruct
+    public void init() {
+        issueTimer = Timer.builder("auth.token.issue")
+                .description("Time to build and sign an access token")
+                .register(meterRegistry);
+        verifyValidTimer = verifyTimer("valid");
+        verifyInvalidTimer = verifyTimer("invalid");
+
+        SignatureAlgorithm algorithm = SignatureAlgorithm.forName(algorithmName);
+        if (algorithm.isHmac()) {
+            this.keyRing = SigningKeyRing.hmac(algorithm, jwtSecret);
+        } else if (algorithm == SignatureAlgorithm.RS256 || algorithm == SignatureAlgorithm.ES256) {
+            // The next key is published one rotation ahead, which only helps if cached JWKS copies expire by then
+            if (keyRotationIntervalMs < jwksMaxAgeMs) {
+                throw new IllegalStateException("jwt.key-rotation-interval-ms (" + keyRotationIntervalMs
+                        + ") must not be shorter than jwt.jwks.max-age-ms (" + jwksMaxAgeMs + ")");
+            }
+            this.keyRing = SigningKeyRing.asymmetric(algorithm);
+        } else {
+            throw new IllegalStateException("Unsupported jwt.algorithm: " + algorithmName);
+        }
+    }
+
     /**
-     * Generate JWT token for user
+     * Rotate the HMAC secret, rebuilding the cached key and parser
      */
-    public String generateJwtToken(String email) {
-        return generateTokenFromEmail(email);
+    public void rotateSigningKey(String newSecret) {
+        if (!keyRing.getAlgorithm().isHmac()) {
+            throw new IllegalStateException("Asymmetric signing keys are rotated by rotateKeyPair()");
+        }
+        this.keyRing = SigningKeyRing.hmac(keyRing.getAlgorithm(), newSecret);
+        verifiedTokenCache.invalidateAll();
     }
-    
+
     /**
-     * Generate JWT token from email
+     * Start signing with the key pair published at the previous rotation, and publish a new next key.
+     * Previous public keys keep verifying until every token they signed has expired, and stay
+     * published in the JWKS until then.
      */
-    public String generateTokenFromEmail(String email) {
-        return Jwts.builder()
-                .setSubject(email)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
-                .compact();
+    @Scheduled(initialDelayString = "${jwt.key-rotation-interval-ms:86400000}",
+               fixedDelayString = "${jwt.key-rotation-interval-ms:86400000}")
+    public void rotateKeyPair() {
+        if (keyRing.getAlgorithm().isHmac()) {
+            return;
+        }
+        this.keyRing = keyRing.rotate(jwtExpirationMs);
     }
-    
+
     /**
-     * Get signing key for JWT
+     * Current signing and verification keys, including the serialized JWKS
      */
-    private Key getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    public SigningKeyRing getKeyRing() {
+        return keyRing;
     }
-    
+
     /**
-     * Get email from JWT token
+     * Generate JWT token for user, embedding its roles so requests need no role lookup
      */
-    public String getEmailFromJwtToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    public String generateJwtToken(User user) {
+        long start = System.nanoTime();
+        String token = builderFor(user.getEmail())
+                .claim(CLAIM_ROLES, user.getRoles())
+                .claim(CLAIM_ROLES_VERSION, user.getRolesVersion())
+                .compact();
+        issueTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return token;
+    }
+
+    private JwtBuilder builderFor(String email) {
+        SigningKeyRing ring = keyRing;
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder();
+        if (ring.getActiveKeyId() != null) {
+            builder.setHeaderParam(JwsHeader.KEY_ID, ring.getActiveKeyId());
+        }
+        return builder
+                .setId(UUID.randomUUID().toString())
+                .setSubject(email)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + jwtExpirationMs))
+                .signWith(ring.getSigningKey(), ring.getAlgorithm());
     }
-    
+
     /**
-     * Validate JWT token
+     * Verify JWT token and return its claims, or null if the token is invalid
      */
-    public boolean validateJwtToken(String authToken) {
+    public VerifiedToken verify(String authToken) {
+        long start = System.nanoTime();
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(authToken);
-            return true;
-        } catch (MalformedJwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
+            Claims claims = keyRing.getParser()
+                    .parseClaimsJws(authToken)
+                    .getBody();
+            VerifiedToken verified = new VerifiedToken(claims);
+            verifyValidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return verified;
         } catch (ExpiredJwtException e) {
-            System.err.println("JWT token is expired: " + e.getMessage());
+            rejectionMetrics.record(Reason.EXPIRED, e);
+        } catch (MalformedJwtException e) {
+            rejectionMetrics.record(Reason.MALFORMED, e);
         } catch (UnsupportedJwtException e) {
-            System.err.println("JWT token is unsupported: " + e.getMessage());
+            rejectionMetrics.record(Reason.UNSUPPORTED, e);
+        } catch (DecodingException | DeserializationException e) {
+            // Bad base64 or bad JSON in the header or claims
+            rejectionMetrics.record(Reason.MALFORMED, e);
+        } catch (SignatureException e) {
+            rejectionMetrics.record(Reason.BAD_SIGNATURE, e);
+        } catch (JwtException e) {
+            // Premature (nbf), wrong claim type and any other rejection jjwt adds
+            rejectionMetrics.record(Reason.OTHER, e);
         } catch (IllegalArgumentException e) {
-            System.err.println("JWT claims string is empty: " + e.getMessage());
+            // Also thrown for a registered claim of the wrong type, e.g. a non-numeric exp
+            boolean empty = authToken == null || authToken.isBlank();
+            rejectionMetrics.record(empty ? Reason.EMPTY : Reason.MALFORMED, e);
         }
-        return false;
+        verifyInvalidTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return null;
+    }
+
+    private Timer verifyTimer(String outcome) {
+        return Timer.builder("auth.token.verify")
+                .description("Time to parse and check the signature of an access token")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
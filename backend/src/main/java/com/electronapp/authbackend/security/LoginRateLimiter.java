@@ -0,0 +1,91 @@
+package com.electronapp.authbackend.security;
+
+import com.electronapp.authbackend.util.RateLimitSketch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles login attempts per client address and per account before any lookup or BCrypt work.
+ * Both limits live in fixed-size sketches, so a flood of distinct addresses or emails costs no
+ * extra memory.
+ */
+@Component
+public class LoginRateLimiter {
+
+    public static final String METRIC_NAME = "auth.ratelimit.rejected";
+
+    @Value("${auth.ratelimit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${auth.ratelimit.client.burst:20}")
+    private int clientBurst;
+
+    @Value("${auth.ratelimit.client.per-minute:60}")
+    private int clientPerMinute;
+
+    @Value("${auth.ratelimit.account.burst:5}")
+    private int accountBurst;
+
+    @Value("${auth.ratelimit.account.per-minute:10}")
+    private int accountPerMinute;
+
+    @Value("${auth.ratelimit.sketch-width:16384}")
+    private int sketchWidth;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private RateLimitSketch clientLimits;
+    private RateLimitSketch accountLimits;
+    private Counter clientRejections;
+    private Counter accountRejections;
+
+    @PostConstruct
+    public void init() {
+        clientLimits = new RateLimitSketch(clientBurst, clientPerMinute, sketchWidth, 4);
+        accountLimits = new RateLimitSketch(accountBurst, accountPerMinute, sketchWidth, 4);
+        clientRejections = rejectionCounter("client");
+        accountRejections = rejectionCounter("account");
+    }
+
+    private Counter rejectionCounter(String key) {
+        return Counter.builder(METRIC_NAME)
+                .description("Login attempts refused by the rate limiter")
+                .tag("key", key)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Take a token for a client address; returns 0 if allowed, otherwise the seconds to wait
+     */
+    public long acquireForClient(String remoteAddress) {
+        return acquire(clientLimits, clientRejections, remoteAddress);
+    }
+
+    /**
+     * Take a token for an account email; returns 0 if allowed, otherwise the seconds to wait
+     */
+    public long acquireForAccount(String email) {
+        return acquire(accountLimits, accountRejections, email.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private long acquire(RateLimitSketch limits, Counter rejections, String key) {
+        if (!enabled) {
+            return 0;
+        }
+        long waitNanos = limits.tryAcquire(key);
+        if (waitNanos == 0) {
+            return 0;
+        }
+        rejections.increment();
+        // Retry-After is in whole seconds; round up so a client that honours it is let through
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+}
@@ -0,0 +1,91 @@
+package com.electronapp.authbackend.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times OAuth2 callbacks end to end (code exchange, user info, user upsert, token issue),
+ * tagged by provider and outcome. Requests are marked successful by the success handler;
+ * anything else, including authentication errors, counts as a failure.
+ */
+public class OAuth2CallbackMetricsFilter extends OncePerRequestFilter {
+    
+    public static final String OUTCOME_ATTRIBUTE = OAuth2CallbackMetricsFilter.class.getName() + ".outcome";
+    public static final String OUTCOME_SUCCESS = "success";
+    // Provider authenticated the user but did not return the attributes needed to sign in
+    public static final String OUTCOME_INCOMPLETE = "incomplete";
+    // The user's email is already linked to another account of the same provider
+    public static final String OUTCOME_CONFLICT = "conflict";
+    private static final String OUTCOME_FAILURE = "failure";
+    private static final String[] OUTCOMES = { OUTCOME_SUCCESS, OUTCOME_INCOMPLETE, OUTCOME_CONFLICT, OUTCOME_FAILURE };
+    
+    private static final String CALLBACK_PREFIX = "/login/oauth2/code/";
+    private static final String UNKNOWN_PROVIDER = "unknown";
+    
+    @Autowired
+    private ClientRegistrationRepository clientRegistrationRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    // Provider -> outcome -> timer; providers come from configuration, so tag values stay bounded
+    private final Map<String, Map<String, Timer>> timers = new HashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        if (clientRegistrationRepository instanceof Iterable<?> registrations) {
+            for (Object registration : registrations) {
+                register(((ClientRegistration) registration).getRegistrationId());
+            }
+        }
+        register(UNKNOWN_PROVIDER);
+    }
+    
+    private void register(String provider) {
+        Map<String, Timer> byOutcome = new HashMap<>();
+        for (String outcome : OUTCOMES) {
+            byOutcome.put(outcome, Timer.builder("auth.oauth2.callback")
+                .description("OAuth2 callback handling from redirect to issued tokens")
+                .tag("provider", provider)
+                .tag("outcome", outcome)
+                .register(meterRegistry));
+        }
+        timers.put(provider, byOutcome);
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getServletPath().startsWith(CALLBACK_PREFIX);
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
+                                  FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Map<String, Timer> byOutcome = timers.get(request.getServletPath().substring(CALLBACK_PREFIX.length()));
+            if (byOutcome == null) {
+                byOutcome = timers.get(UNKNOWN_PROVIDER);
+            }
+            Object outcome = request.getAttribute(OUTCOME_ATTRIBUTE);
+            byOutcome.get(outcome != null ? outcome : OUTCOME_FAILURE)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.electronapp.authbackend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Rejects login attempts and OAuth2 callbacks from clients over their rate with 429,
+ * before the request reaches the database, BCrypt or the provider's token endpoint.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private static final String LOGIN_PATH = "/auth/login";
+    private static final String OAUTH2_CALLBACK_PREFIX = "/login/oauth2/code/";
+    
+    private static final byte[] REJECTED_BODY =
+        "{\"message\":\"Error: Too many login attempts, please retry shortly\"}".getBytes(StandardCharsets.UTF_8);
+    
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        return !(path.startsWith(OAUTH2_CALLBACK_PREFIX)
+            || (path.equals(LOGIN_PATH) && HttpMethod.POST.matches(request.getMethod())));
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
+                                  FilterChain filterChain) throws ServletException, IOException {
+        long retryAfter = loginRateLimiter.acquireForClient(request.getRemoteAddr());
+        if (retryAfter > 0) {
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(REJECTED_BODY);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
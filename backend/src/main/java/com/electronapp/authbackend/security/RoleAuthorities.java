@@ -0,0 +1,41 @@
+package com.electronapp.authbackend.security;
+
+import com.electronapp.authbackend.entity.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable authority lists for every possible role bitmask, built once at class load.
+ * Decoding the role claim of a token is a single array lookup.
+ */
+public final class RoleAuthorities {
+
+    private static final List<GrantedAuthority>[] BY_MASK = buildAll();
+
+    private RoleAuthorities() {
+    }
+
+    /**
+     * Shared authority list for a role bitmask; bits of unknown roles are ignored
+     */
+    public static List<GrantedAuthority> forMask(int mask) {
+        return BY_MASK[mask & Role.ALL_MASK];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<GrantedAuthority>[] buildAll() {
+        List<GrantedAuthority>[] lists = new List[Role.ALL_MASK + 1];
+        for (int mask = 0; mask <= Role.ALL_MASK; mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (Role role : Role.fromMask(mask)) {
+                authorities.add(new SimpleGrantedAuthority(role.authority()));
+            }
+            lists[mask] = Collections.unmodifiableList(authorities);
+        }
+        return lists;
+    }
+}
@@ -0,0 +1,232 @@
+package com.electronapp.authbackend.security;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of the keys used to sign and verify JWTs.
+ * Holds the active signing key, every key still accepted for verification, a parser bound to them,
+ * and the pre-serialized JWKS document. Rotation builds a new ring instead of mutating this one.
+ * Asymmetric rings also hold the next key pair: it is published in the JWKS one rotation ahead of
+ * signing anything, so verifiers holding a cached JWKS already know it when the first token arrives.
+ */
+public final class SigningKeyRing {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final SignatureAlgorithm algorithm;
+    private final String activeKeyId;
+    private final Key signingKey;
+    private final List<VerificationKey> verificationKeys;
+    private final KeyPair nextKeyPair;
+    private final String nextKeyId;
+    private final JwtParser parser;
+    private final byte[] jwks;
+    private final String jwksEtag;
+
+    private SigningKeyRing(SignatureAlgorithm algorithm, String activeKeyId, Key signingKey,
+                           List<VerificationKey> verificationKeys, KeyPair nextKeyPair, String nextKeyId,
+                           List<VerificationKey> publishedKeys, JwtParser parser) {
+        this.algorithm = algorithm;
+        this.activeKeyId = activeKeyId;
+        this.signingKey = signingKey;
+        this.verificationKeys = verificationKeys;
+        this.nextKeyPair = nextKeyPair;
+        this.nextKeyId = nextKeyId;
+        this.parser = parser;
+        this.jwks = serializeJwks(publishedKeys);
+        this.jwksEtag = etagOf(jwks);
+    }
+
+    /**
+     * Ring for HMAC signing with a shared secret; nothing is published in the JWKS
+     */
+    public static SigningKeyRing hmac(SignatureAlgorithm algorithm, String secret) {
+        Key key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        JwtParser parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
+        return new SigningKeyRing(algorithm, null, key, Collections.emptyList(), null, null,
+                Collections.emptyList(), parser);
+    }
+
+    /**
+     * Ring for asymmetric signing with a freshly generated key pair, and the next one already published
+     */
+    public static SigningKeyRing asymmetric(SignatureAlgorithm algorithm) {
+        return rotate(algorithm, Keys.keyPairFor(algorithm), UUID.randomUUID().toString(),
+                Collections.emptyList(), Long.MAX_VALUE);
+    }
+
+    /**
+     * New ring that signs with this ring's published next key, publishes a fresh next key, and still
+     * verifies with this ring's keys, except those retired for longer than the given retention
+     */
+    public SigningKeyRing rotate(long retentionMs) {
+        return rotate(algorithm, nextKeyPair, nextKeyId, verificationKeys, retentionMs);
+    }
+
+    private static SigningKeyRing rotate(SignatureAlgorithm algorithm, KeyPair keyPair, String keyId,
+                                         List<VerificationKey> previousKeys, long retentionMs) {
+        long now = System.currentTimeMillis();
+
+        // Keys are ordered newest first, so each key was retired when the one before it was created
+        List<VerificationKey> keys = new ArrayList<>();
+        keys.add(new VerificationKey(keyId, keyPair.getPublic(), now));
+        long retiredAt = now;
+        for (VerificationKey previous : previousKeys) {
+            if (now - retiredAt > retentionMs) {
+                break;
+            }
+            keys.add(previous);
+            retiredAt = previous.createdAt;
+        }
+
+        KeyPair nextKeyPair = Keys.keyPairFor(algorithm);
+        String nextKeyId = UUID.randomUUID().toString();
+        List<VerificationKey> publishedKeys = new ArrayList<>();
+        publishedKeys.add(new VerificationKey(nextKeyId, nextKeyPair.getPublic(), Long.MAX_VALUE));
+        publishedKeys.addAll(keys);
+
+        Map<String, PublicKey> keysById = new LinkedHashMap<>();
+        for (VerificationKey key : publishedKeys) {
+            keysById.put(key.keyId, key.publicKey);
+        }
+        JwtParser parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        Key key = header.getKeyId() != null ? keysById.get(header.getKeyId()) : null;
+                        if (key == null) {
+                            throw new SignatureException("Unknown signing key id: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+
+        return new SigningKeyRing(algorithm, keyId, keyPair.getPrivate(), Collections.unmodifiableList(keys),
+                nextKeyPair, nextKeyId, publishedKeys, parser);
+    }
+
+    // Getters
+    public SignatureAlgorithm getAlgorithm() { return algorithm; }
+
+    // Key id written to the kid header, or null for HMAC
+    public String getActiveKeyId() { return activeKeyId; }
+
+    // Published key that signs after the next rotation, or null for HMAC
+    public String getNextKeyId() { return nextKeyId; }
+
+    public Key getSigningKey() { return signingKey; }
+
+    public JwtParser getParser() { return parser; }
+
+    // Serialized JWKS document; callers must not modify the array
+    public byte[] getJwks() { return jwks; }
+
+    public String getJwksEtag() { return jwksEtag; }
+
+    private static byte[] serializeJwks(List<VerificationKey> keys) {
+        List<Map<String, String>> jwkList = new ArrayList<>();
+        for (VerificationKey key : keys) {
+            jwkList.add(toJwk(key));
+        }
+        try {
+            return objectMapper.writeValueAsBytes(Map.of("keys", jwkList));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize JWKS", e);
+        }
+    }
+
+    private static Map<String, String> toJwk(VerificationKey key) {
+        Map<String, String> jwk = new LinkedHashMap<>();
+        if (key.publicKey instanceof RSAPublicKey rsaKey) {
+            jwk.put("kty", "RSA");
+            jwk.put("alg", SignatureAlgorithm.RS256.getValue());
+            jwk.put("n", base64Url(unsigned(rsaKey.getModulus(), 0)));
+            jwk.put("e", base64Url(unsigned(rsaKey.getPublicExponent(), 0)));
+        } else if (key.publicKey instanceof ECPublicKey ecKey) {
+            int size = (ecKey.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+            jwk.put("kty", "EC");
+            jwk.put("alg", SignatureAlgorithm.ES256.getValue());
+            jwk.put("crv", "P-256");
+            jwk.put("x", base64Url(unsigned(ecKey.getW().getAffineX(), size)));
+            jwk.put("y", base64Url(unsigned(ecKey.getW().getAffineY(), size)));
+        } else {
+            throw new IllegalStateException("Unsupported public key type: " + key.publicKey.getAlgorithm());
+        }
+        jwk.put("use", "sig");
+        jwk.put("kid", key.keyId);
+        return jwk;
+    }
+
+    // Big-endian magnitude without the sign byte, left-padded to the given length
+    private static byte[] unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length >= length) {
+            return bytes;
+        }
+        byte[] padded = new byte[length];
+        System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+        return padded;
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String etagOf(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + base64Url(Arrays.copyOf(digest, 16)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Public key accepted for verification, with the time it became the signing key
+     * (Long.MAX_VALUE for the next key, which has not signed yet)
+     */
+    private static final class VerificationKey {
+        private final String keyId;
+        private final PublicKey publicKey;
+        private final long createdAt;
+
+        VerificationKey(String keyId, PublicKey publicKey, long createdAt) {
+            this.keyId = keyId;
+            this.publicKey = publicKey;
+            this.createdAt = createdAt;
+        }
+    }
+}
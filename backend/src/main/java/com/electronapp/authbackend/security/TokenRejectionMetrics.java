@@ -0,0 +1,92 @@
+package com.electronapp.authbackend.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts rejected JWTs per reason and logs a rate-limited sample of them.
+ * Recording a rejection does not allocate unless a log line is actually written.
+ */
+@Component
+public class TokenRejectionMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRejectionMetrics.class);
+
+    public static final String METRIC_NAME = "auth.token.rejections";
+
+    /**
+     * Why a token failed verification
+     */
+    public enum Reason {
+        EXPIRED("expired"),
+        MALFORMED("malformed"),
+        UNSUPPORTED("unsupported"),
+        BAD_SIGNATURE("bad_signature"),
+        EMPTY("empty"),
+        OTHER("other");
+
+        private final String tag;
+
+        Reason(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() { return tag; }
+    }
+
+    @Value("${jwt.rejection-log-interval-ms:60000}")
+    private long logIntervalMs;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Counter[] counters = new Counter[Reason.values().length];
+
+    // Per reason: time of the last log line and rejections seen since then
+    private final AtomicLongArray lastLoggedAt = new AtomicLongArray(Reason.values().length);
+    private final AtomicLongArray suppressed = new AtomicLongArray(Reason.values().length);
+
+    @PostConstruct
+    public void init() {
+        for (Reason reason : Reason.values()) {
+            counters[reason.ordinal()] = Counter.builder(METRIC_NAME)
+                    .description("JWTs rejected during verification")
+                    .tag("reason", reason.getTag())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Record a rejected token, logging at most one sample per reason per interval
+     */
+    public void record(Reason reason, Exception cause) {
+        int index = reason.ordinal();
+        counters[index].increment();
+
+        long now = System.currentTimeMillis();
+        long last = lastLoggedAt.get(index);
+        if (now - last < logIntervalMs || !lastLoggedAt.compareAndSet(index, last, now)) {
+            suppressed.incrementAndGet(index);
+            return;
+        }
+
+        long skipped = suppressed.getAndSet(index, 0);
+        logger.warn("Rejected JWT ({}): {} [{} similar rejections since last sample]",
+                reason.getTag(), cause.getMessage(), skipped);
+    }
+
+    /**
+     * Total rejections recorded for a reason
+     */
+    public double count(Reason reason) {
+        return counters[reason.ordinal()].count();
+    }
+}
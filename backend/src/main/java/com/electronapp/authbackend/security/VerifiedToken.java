@@ -0,0 +1,55 @@
+package com.electronapp.authbackend.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.security.Principal;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Claims of a JWT whose signature and expiry have already been checked.
+ * Stored as the authentication principal so the token is parsed only once per request.
+ */
+public class VerifiedToken implements Principal {
+    private final String id;
+    private final String email;
+    private final Date expiration;
+    private final Claims claims;
+    private final int rolesVersion;
+    private final List<GrantedAuthority> authorities;
+
+    public VerifiedToken(Claims claims) {
+        this.id = claims.getId();
+        this.email = claims.getSubject();
+        this.expiration = claims.getExpiration();
+        this.claims = claims;
+        this.rolesVersion = intClaim(claims, JwtUtils.CLAIM_ROLES_VERSION);
+        // Shared immutable list per role mask, so no copy is made per request
+        this.authorities = RoleAuthorities.forMask(intClaim(claims, JwtUtils.CLAIM_ROLES));
+    }
+    
+    private static int intClaim(Claims claims, String name) {
+        Object value = claims.get(name);
+        return value instanceof Number number ? number.intValue() : 0;
+    }
+
+    // Getters
+    public String getId() { return id; }
+
+    public String getEmail() { return email; }
+
+    public Date getExpiration() { return expiration; }
+
+    public Claims getClaims() { return claims; }
+
+    public int getRolesVersion() { return rolesVersion; }
+    
+    public List<GrantedAuthority> getAuthorities() { return authorities; }
+
+    @Override
+    public String getName() { return email; }
+
+    @Override
+    public String toString() { return email; }
+}
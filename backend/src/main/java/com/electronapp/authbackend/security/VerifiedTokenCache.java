@@ -0,0 +1,140 @@
+package com.electronapp.authbackend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of recently verified tokens, keyed by the SHA-256 digest of the raw token.
+ * Entries expire with the token itself, so a cache hit never outlives the token's exp claim.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    public static final String CACHE_NAME = "jwtVerified";
+
+    private static final ThreadLocal<TokenDigester> DIGESTER = ThreadLocal.withInitial(TokenDigester::new);
+
+    @Value("${jwt.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private long maxSize;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Cache<ByteBuffer, VerifiedToken> cache;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+
+        cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Get previously verified claims for a token, or null on a miss
+     */
+    public VerifiedToken get(String token) {
+        if (cache == null) {
+            return null;
+        }
+        return cache.getIfPresent(digest(token));
+    }
+
+    /**
+     * Remember the verified claims of a token until it expires
+     */
+    public void put(String token, VerifiedToken verifiedToken) {
+        if (cache == null || verifiedToken.getExpiration() == null) {
+            return;
+        }
+        cache.put(digest(token), verifiedToken);
+    }
+
+    /**
+     * Drop every cached entry, e.g. after the signing key rotates
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(DIGESTER.get().digest(token));
+    }
+
+    /**
+     * SHA-256 of a token, reusing one digest and one byte buffer per thread instead of a provider
+     * lookup and a copy of the token on every request
+     */
+    private static final class TokenDigester {
+        private final MessageDigest sha256;
+        private byte[] buffer = new byte[512];
+
+        TokenDigester() {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        byte[] digest(String token) {
+            int length = token.length();
+            if (buffer.length < length) {
+                buffer = new byte[length];
+            }
+            // Tokens are base64url and dots; anything else becomes '?' as with getBytes(US_ASCII)
+            for (int i = 0; i < length; i++) {
+                char c = token.charAt(i);
+                buffer[i] = c < 0x80 ? (byte) c : (byte) '?';
+            }
+            sha256.update(buffer, 0, length);
+            return sha256.digest();
+        }
+    }
+
+    /**
+     * Expires each entry at the exp claim of its token
+     */
+    private static final class TokenExpiry implements Expiry<ByteBuffer, VerifiedToken> {
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedToken value, long currentTime) {
+            long remainingMs = value.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedToken value, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedToken value, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.electronapp.authbackend.service;
+
+import com.electronapp.authbackend.repository.UserRepository;
+import com.electronapp.authbackend.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+/**
+ * In-memory membership index of user emails, so logins for unknown emails skip the database.
+ * Backed by a Bloom filter: "absent" is exact for every email added after its commit, "present"
+ * may be a false positive that the database lookup then rules out.
+ */
+@Service
+public class KnownEmailIndex {
+    
+    @Value("${auth.known-emails.expected-users:1000000}")
+    private long expectedUsers;
+    
+    @Value("${auth.known-emails.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    private volatile BloomFilter bloomFilter;
+    
+    // Filter being filled by a rebuild; emails added meanwhile go into it as well
+    private volatile BloomFilter pending;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        rebuild();
+    }
+    
+    /**
+     * Record an email whose user has been committed
+     */
+    public void add(String email) {
+        BloomFilter building = pending;
+        if (building != null) {
+            building.put(email);
+        }
+        bloomFilter.put(email);
+    }
+    
+    /**
+     * Check whether a user with this email may exist; false means it definitely does not
+     */
+    public boolean mightContain(String email) {
+        return bloomFilter.mightContain(email);
+    }
+    
+    /**
+     * Rebuild the index from the database. This also picks up users created by other instances
+     * sharing the database, and resizes the filter as the configuration changes.
+     */
+    @Scheduled(initialDelayString = "${auth.known-emails.refresh-interval-ms:600000}",
+               fixedDelayString = "${auth.known-emails.refresh-interval-ms:600000}")
+    public synchronized void rebuild() {
+        BloomFilter fresh = new BloomFilter(expectedUsers, falsePositiveRate);
+        // Published before the query, so a user committed after the query's snapshot is still added
+        pending = fresh;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    emails.forEach(fresh::put);
+                }
+            });
+            bloomFilter = fresh;
+        } finally {
+            pending = null;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.electronapp.authbackend.service;
 
 import com.electronapp.authbackend.entity.User;
 import com.electronapp.authbackend.security.JwtUtils;
+import com.electronapp.authbackend.security.OAuth2CallbackMetricsFilter;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -27,6 +28,9 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
     @Autowired
     private JwtUtils jwtUtils;
     
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+    
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, 
                                       Authentication authentication) throws IOException, ServletException {
@@ -59,20 +63,31 @@ public class OAuth2AuthenticationSuccessHandler extends SimpleUrlAuthenticationS
         
         if (email != null && providerUserId != null) {
             // Create or update user
-            User user = userService.createOrUpdateOAuth2User(email, firstName, lastName, 
-                                                           avatarUrl, registrationId, providerUserId);
+            User user;
+            try {
+                user = userService.createOrUpdateOAuth2User(email, firstName, lastName, 
+                                                          avatarUrl, registrationId, providerUserId);
+            } catch (ProviderAlreadyLinkedException e) {
+                request.setAttribute(OAuth2CallbackMetricsFilter.OUTCOME_ATTRIBUTE, OAuth2CallbackMetricsFilter.OUTCOME_CONFLICT);
+                getRedirectStrategy().sendRedirect(request, response, "http://localhost:4200/login?error=provider_already_linked");
+                return;
+            }
             
-            // Generate JWT token
-            String token = jwtUtils.generateJwtToken(user.getEmail());
+            // Generate JWT access token and refresh token
+            String token = jwtUtils.generateJwtToken(user);
+            String refreshToken = refreshTokenService.issue(user);
             
-            // Redirect to frontend with token
+            // Redirect to frontend with tokens
             String targetUrl = UriComponentsBuilder.fromUriString("http://localhost:4200/auth/callback")
                 .queryParam("token", token)
+                .queryParam("refreshToken", refreshToken)
                 .build().toUriString();
             
+            request.setAttribute(OAuth2CallbackMetricsFilter.OUTCOME_ATTRIBUTE, OAuth2CallbackMetricsFilter.OUTCOME_SUCCESS);
             getRedirectStrategy().sendRedirect(request, response, targetUrl);
         } else {
             // Authentication failed
+            request.setAttribute(OAuth2CallbackMetricsFilter.OUTCOME_ATTRIBUTE, OAuth2CallbackMetricsFilter.OUTCOME_INCOMPLETE);
             getRedirectStrategy().sendRedirect(request, response, "http://localhost:4200/login?error=oauth2_failed");
         }
     }
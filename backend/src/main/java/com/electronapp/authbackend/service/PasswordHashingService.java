@@ -0,0 +1,148 @@
+package com.electronapp.authbackend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt password checks on a dedicated, bounded worker pool.
+ * Servlet threads never hash, and when the queue is full new checks are rejected
+ * immediately instead of piling up behind a burst of logins.
+ */
+@Service
+public class PasswordHashingService {
+
+    @Value("${auth.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${auth.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executor;
+    private Timer matchTimer;
+    private Timer encodeTimer;
+    private Counter rejectedCounter;
+    
+    // Hash of a random password at the configured cost, checked when there is no real hash
+    private String dummyHash;
+
+    @PostConstruct
+    public void init() {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHashing");
+
+        matchTimer = Timer.builder("auth.password.hash")
+            .description("Time spent in BCrypt per password operation")
+            .tag("operation", "match")
+            .register(meterRegistry);
+        encodeTimer = Timer.builder("auth.password.hash")
+            .description("Time spent in BCrypt per password operation")
+            .tag("operation", "encode")
+            .register(meterRegistry);
+        rejectedCounter = Counter.builder("auth.password.rejected")
+            .description("Password checks rejected because the hashing pool was saturated")
+            .register(meterRegistry);
+
+        dummyHash = passwordEncoder.encode(UUID.randomUUID().toString());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Check a raw password against a stored hash on the hashing pool.
+     * If the hash was made with a lower BCrypt cost than configured, the password is rehashed too.
+     *
+     * @throws RejectedExecutionException if the hashing pool and its queue are full
+     */
+    public CompletableFuture<PasswordCheck> verify(String rawPassword, String passwordHash) {
+        try {
+            return CompletableFuture.supplyAsync(() -> check(rawPassword, passwordHash), executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Spend the same BCrypt work as {@link #verify} without a stored hash, e.g. for an unknown
+     * account, so the response time does not reveal whether the account exists. Never matches.
+     *
+     * @throws RejectedExecutionException if the hashing pool and its queue are full
+     */
+    public CompletableFuture<PasswordCheck> verifyAgainstDummy(String rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                matchTimer.record(() -> passwordEncoder.matches(rawPassword, dummyHash));
+                return new PasswordCheck(false, null);
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw e;
+        }
+    }
+
+    private PasswordCheck check(String rawPassword, String passwordHash) {
+        boolean matches = matchTimer.record(() -> passwordEncoder.matches(rawPassword, passwordHash));
+        if (!matches) {
+            return new PasswordCheck(false, null);
+        }
+
+        String upgradedHash = null;
+        if (passwordEncoder.upgradeEncoding(passwordHash)) {
+            upgradedHash = encodeTimer.record(() -> passwordEncoder.encode(rawPassword));
+        }
+        return new PasswordCheck(true, upgradedHash);
+    }
+
+    /**
+     * Outcome of a password check
+     */
+    public static class PasswordCheck {
+        private final boolean matches;
+        private final String upgradedHash;
+
+        public PasswordCheck(boolean matches, String upgradedHash) {
+            this.matches = matches;
+            this.upgradedHash = upgradedHash;
+        }
+
+        public boolean matches() { return matches; }
+
+        // New hash at the current BCrypt cost, or null if the stored hash is up to date
+        public String getUpgradedHash() { return upgradedHash; }
+    }
+}
@@ -0,0 +1,18 @@
+package com.electronapp.authbackend.service;
+
+/**
+ * Thrown when an OAuth2 login would link a second account of the same provider to one user
+ */
+public class ProviderAlreadyLinkedException extends RuntimeException {
+    
+    private final String providerName;
+    
+    public ProviderAlreadyLinkedException(String email, String providerName) {
+        super("User " + email + " is already linked to another " + providerName + " account");
+        this.providerName = providerName;
+    }
+    
+    public String getProviderName() {
+        return providerName;
+    }
+}
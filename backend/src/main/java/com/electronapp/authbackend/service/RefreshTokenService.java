@@ -0,0 +1,158 @@
+package com.electronapp.authbackend.service;
+
+import com.electronapp.authbackend.entity.RefreshToken;
+import com.electronapp.authbackend.entity.User;
+import com.electronapp.authbackend.repository.RefreshTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues, rotates and purges refresh tokens
+ */
+@Service
+public class RefreshTokenService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+    
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpirationMs;
+    
+    @Value("${jwt.refresh-sweep-batch-size:500}")
+    private int sweepBatchSize;
+    
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private final SecureRandom secureRandom = new SecureRandom();
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Issue a refresh token that starts a new token family
+     */
+    public String issue(User user) {
+        return issue(user, UUID.randomUUID().toString());
+    }
+    
+    /**
+     * Exchange a refresh token for a new one in the same family.
+     * A token that was already exchanged is a sign of theft, so presenting it revokes the whole family.
+     */
+    @Transactional
+    public Optional<Rotation> rotate(String rawToken) {
+        Optional<RefreshToken> storedOpt = refreshTokenRepository.findForUpdateByTokenHash(hash(rawToken));
+        if (storedOpt.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        RefreshToken stored = storedOpt.get();
+        if (stored.isUsed()) {
+            logger.warn("Refresh token reuse detected, revoking token family {}", stored.getFamilyId());
+            refreshTokenRepository.revokeFamily(stored.getFamilyId());
+            return Optional.empty();
+        }
+        if (stored.isRevoked() || stored.isExpired()) {
+            return Optional.empty();
+        }
+        
+        stored.setUsed(true);
+        String nextToken = issue(stored.getUser(), stored.getFamilyId());
+        return Optional.of(new Rotation(stored.getUser(), nextToken));
+    }
+    
+    /**
+     * Revoke a refresh token together with every token rotated from the same login
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findForUpdateByTokenHash(hash(rawToken))
+            .ifPresent(stored -> refreshTokenRepository.revokeFamily(stored.getFamilyId()));
+    }
+    
+    /**
+     * Delete expired refresh tokens in batches, each batch in its own transaction
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-sweep-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted;
+        int total = 0;
+        do {
+            deleted = transactionTemplate.execute(status -> {
+                List<Long> ids = refreshTokenRepository.findExpiredIds(LocalDateTime.now(),
+                    PageRequest.of(0, sweepBatchSize));
+                refreshTokenRepository.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            total += deleted;
+        } while (deleted == sweepBatchSize);
+        
+        if (total > 0) {
+            logger.info("Purged {} expired refresh tokens", total);
+        }
+    }
+    
+    private String issue(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        
+        LocalDateTime expiresAt = LocalDateTime.now().plus(refreshExpirationMs, ChronoUnit.MILLIS);
+        refreshTokenRepository.save(new RefreshToken(hash(token), user, familyId, expiresAt));
+        return token;
+    }
+    
+    private static String hash(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Result of a successful refresh token rotation
+     */
+    public static class Rotation {
+        private final User user;
+        private final String refreshToken;
+        
+        public Rotation(User user, String refreshToken) {
+            this.user = user;
+            this.refreshToken = refreshToken;
+        }
+        
+        public User getUser() { return user; }
+        
+        public String getRefreshToken() { return refreshToken; }
+    }
+}
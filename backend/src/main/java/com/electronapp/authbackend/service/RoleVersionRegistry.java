@@ -0,0 +1,57 @@
+package com.electronapp.authbackend.service;
+
+import com.electronapp.authbackend.repository.UserRepository;
+import com.electronapp.authbackend.security.VerifiedToken;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Current role version of every user whose roles have ever changed.
+ * Access tokens carry the role version they were issued with; a token older than the version
+ * held here no longer reflects the user's roles and is refused, so the client has to refresh.
+ * Users missing from the map still have their initial roles, and any version is current.
+ */
+@Service
+public class RoleVersionRegistry {
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    private final ConcurrentHashMap<String, Integer> versions = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+    
+    /**
+     * Check whether a token was issued with the user's current roles
+     */
+    public boolean isCurrent(VerifiedToken token) {
+        Integer current = versions.get(token.getEmail());
+        return current == null || token.getRolesVersion() >= current;
+    }
+    
+    /**
+     * Record a role change that has been committed
+     */
+    public void update(String email, int rolesVersion) {
+        versions.merge(email, rolesVersion, Math::max);
+    }
+    
+    /**
+     * Merge role versions from the database, picking up changes made by other instances.
+     * Versions only grow, so merging never undoes a newer local update.
+     */
+    @Scheduled(initialDelayString = "${jwt.roles-version.refresh-interval-ms:60000}",
+               fixedDelayString = "${jwt.roles-version.refresh-interval-ms:60000}")
+    public void reload() {
+        for (Object[] row : userRepository.findChangedRoleVersions()) {
+            update((String) row[0], (Integer) row[1]);
+        }
+    }
+}
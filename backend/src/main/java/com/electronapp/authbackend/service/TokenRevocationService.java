@@ -0,0 +1,95 @@
+package com.electronapp.authbackend.service;
+
+import com.electronapp.authbackend.entity.RevokedToken;
+import com.electronapp.authbackend.repository.RevokedTokenRepository;
+import com.electronapp.authbackend.security.VerifiedToken;
+import com.electronapp.authbackend.util.BloomFilter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Denylist of access tokens revoked before they expire.
+ * The database holds the revoked jti values; an in-memory Bloom filter in front of it answers
+ * the common "not revoked" case without any I/O, and only possible hits are confirmed in the database.
+ */
+@Service
+public class TokenRevocationService {
+    
+    // Revocations committed just before a rebuild started may not be visible to its first query
+    private static final long REBUILD_OVERLAP_SECONDS = 5;
+    
+    @Value("${jwt.revocation.expected-revocations:100000}")
+    private long expectedRevocations;
+    
+    @Value("${jwt.revocation.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+    
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    private volatile BloomFilter bloomFilter;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        rebuild();
+    }
+    
+    /**
+     * Revoke a verified access token until it expires
+     */
+    @Transactional
+    public void revoke(VerifiedToken token) {
+        if (token.getId() == null || token.getExpiration() == null) {
+            return;
+        }
+        
+        LocalDateTime expiresAt = LocalDateTime.ofInstant(token.getExpiration().toInstant(), ZoneId.systemDefault());
+        revokedTokenRepository.save(new RevokedToken(token.getId(), expiresAt));
+        bloomFilter.put(token.getId());
+    }
+    
+    /**
+     * Check whether a verified access token has been revoked
+     */
+    public boolean isRevoked(VerifiedToken token) {
+        String jti = token.getId();
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(jti);
+    }
+    
+    /**
+     * Drop expired revocations and rebuild the Bloom filter from the rest.
+     * This also picks up tokens revoked by other instances sharing the database.
+     */
+    @Scheduled(initialDelayString = "${jwt.revocation.refresh-interval-ms:60000}",
+               fixedDelayString = "${jwt.revocation.refresh-interval-ms:60000}")
+    public void rebuild() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> revokedTokenRepository.deleteExpired(startedAt));
+        
+        BloomFilter fresh = new BloomFilter(expectedRevocations, falsePositiveRate);
+        revokedTokenRepository.findActiveJtis(startedAt).forEach(fresh::put);
+        bloomFilter = fresh;
+        
+        // Tokens revoked while the filter was being built went into the old one
+        revokedTokenRepository.findJtisRevokedSince(startedAt.minusSeconds(REBUILD_OVERLAP_SECONDS))
+            .forEach(fresh::put);
+    }
+}
@@ -0,0 +1,122 @@
+package com.electronapp.authbackend.service;
+
+import com.electronapp.authbackend.dto.UserExportRow;
+import com.electronapp.authbackend.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Streams users with their OAuth2 provider links as newline-delimited JSON.
+ * Users are read in chunks, each in its own short read-only transaction, and a chunk is written
+ * after its transaction has closed. Memory use does not depend on the number of users exported,
+ * and no pooled connection is held while the client reads.
+ */
+@Service
+public class UserExportService {
+    
+    // Users per chunk; rows per chunk are this times the providers per user
+    private static final int CHUNK_USERS = 500;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate readOnlyTransaction;
+    
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * Write up to {@code limit} users with an id greater than {@code afterId}, in id order.
+     * The id of the last line written is the {@code afterId} of the next page.
+     *
+     * @return number of users written
+     */
+    public long export(long afterId, long limit, OutputStream out) throws IOException {
+        long written = 0;
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            // Each user ends with its own newline instead of Jackson's space separator
+            generator.setRootValueSeparator(null);
+            long lastId = afterId;
+            while (written < limit) {
+                int chunkUsers = (int) Math.min(CHUNK_USERS, limit - written);
+                long chunkAfterId = lastId;
+                List<UserExportRow> rows = readOnlyTransaction.execute(status -> readChunk(chunkAfterId, chunkUsers));
+                if (rows == null || rows.isEmpty()) {
+                    break;
+                }
+                written += writeUsers(rows, generator);
+                generator.flush();
+                lastId = rows.get(rows.size() - 1).getId();
+            }
+        }
+        return written;
+    }
+    
+    private List<UserExportRow> readChunk(long afterId, int users) {
+        List<Long> ids = userRepository.findIdsAfter(afterId, PageRequest.of(0, users));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return userRepository.findExportRows(afterId, ids.get(ids.size() - 1));
+    }
+    
+    private static long writeUsers(List<UserExportRow> rows, JsonGenerator generator) throws IOException {
+        long users = 0;
+        Long currentId = null;
+        for (UserExportRow row : rows) {
+            if (!Objects.equals(row.getId(), currentId)) {
+                if (currentId != null) {
+                    endUser(generator);
+                    users++;
+                }
+                startUser(generator, row);
+                currentId = row.getId();
+            }
+            if (row.getProviderName() != null) {
+                generator.writeStartObject();
+                generator.writeStringField("providerName", row.getProviderName());
+                generator.writeStringField("providerUserId", row.getProviderUserId());
+                generator.writeEndObject();
+            }
+        }
+        endUser(generator);
+        return users + 1;
+    }
+    
+    private static void startUser(JsonGenerator generator, UserExportRow row) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", row.getId());
+        generator.writeStringField("email", row.getEmail());
+        generator.writeStringField("username", row.getUsername());
+        generator.writeStringField("firstName", row.getFirstName());
+        generator.writeStringField("lastName", row.getLastName());
+        generator.writeStringField("createdAt", row.getCreatedAt() != null ? row.getCreatedAt().toString() : null);
+        generator.writeArrayFieldStart("oauth2Providers");
+    }
+    
+    private static void endUser(JsonGenerator generator) throws IOException {
+        generator.writeEndArray();
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+}
@@ -0,0 +1,358 @@
+package com.electronapp.authbackend.service;
+
+import com.electronapp.authbackend.dto.UserImportRecord;
+import com.electronapp.authbackend.dto.UserImportResult;
+import com.electronapp.authbackend.entity.OAuth2Provider;
+import com.electronapp.authbackend.entity.User;
+import com.electronapp.authbackend.repository.OAuth2ProviderRepository;
+import com.electronapp.authbackend.repository.UserRepository;
+import com.electronapp.authbackend.util.CsvParser;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk import of users and OAuth2 provider links from CSV or NDJSON.
+ * Input is read as a stream and applied in batches: each batch looks up existing users and
+ * links with a handful of IN queries, allocates the usernames it needs, then writes its rows
+ * as JDBC batches in one transaction and clears the persistence context, so memory stays flat
+ * however large the input is. Rows follow the rules of UserService.createOrUpdateOAuth2User,
+ * so re-running an import is harmless.
+ */
+@Service
+public class UserImportService {
+    
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+    
+    @Value("${auth.import.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${auth.import.progress-interval:10000}")
+    private long progressInterval;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private OAuth2ProviderRepository oauth2ProviderRepository;
+    
+    @Autowired
+    private UsernameAllocator usernameAllocator;
+    
+    @Autowired
+    private KnownEmailIndex knownEmailIndex;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UserProfileCache userProfileCache;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate readOnlyTransactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+    
+    /**
+     * Import CSV with a header row naming the columns
+     * (email, firstName, lastName, avatarUrl, providerName, providerUserId; unknown columns are ignored)
+     */
+    public UserImportResult importCsv(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            return new Progress().finish();
+        }
+        
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = CsvParser.parseLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            if (names.get(i) != null) {
+                columns.put(names.get(i).trim(), i);
+            }
+        }
+        if (!columns.containsKey("email")) {
+            throw new IllegalArgumentException("CSV header has no email column");
+        }
+        
+        Progress progress = new Progress();
+        List<UserImportRecord> batch = new ArrayList<>(batchSize);
+        long lineNumber = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields;
+            try {
+                fields = CsvParser.parseLine(line);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": " + e.getMessage());
+            }
+            
+            UserImportRecord record = new UserImportRecord();
+            record.setEmail(field(fields, columns, "email"));
+            record.setFirstName(field(fields, columns, "firstName"));
+            record.setLastName(field(fields, columns, "lastName"));
+            record.setAvatarUrl(field(fields, columns, "avatarUrl"));
+            record.setProviderName(field(fields, columns, "providerName"));
+            record.setProviderUserId(field(fields, columns, "providerUserId"));
+            add(batch, record, progress);
+        }
+        flushBatch(batch, progress);
+        return progress.finish();
+    }
+    
+    /**
+     * Import newline-delimited JSON, one UserImportRecord object per line
+     */
+    public UserImportResult importNdjson(InputStream input) throws IOException {
+        Progress progress = new Progress();
+        List<UserImportRecord> batch = new ArrayList<>(batchSize);
+        try (MappingIterator<UserImportRecord> records = objectMapper.readerFor(UserImportRecord.class)
+                .readValues(input)) {
+            while (records.hasNextValue()) {
+                add(batch, records.nextValue(), progress);
+            }
+        }
+        flushBatch(batch, progress);
+        return progress.finish();
+    }
+    
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index != null && index < fields.size() ? fields.get(index) : null;
+    }
+    
+    private void add(List<UserImportRecord> batch, UserImportRecord record, Progress progress) {
+        batch.add(record);
+        if (batch.size() >= batchSize) {
+            flushBatch(batch, progress);
+        }
+    }
+    
+    private void flushBatch(List<UserImportRecord> batch, Progress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        BatchPlan plan = readOnlyTransactionTemplate.execute(status -> planBatch(batch, progress));
+        
+        // Allocated in their own transactions before the batch transaction opens, so an import
+        // never holds two pooled connections at once
+        List<String> baseUsernames = new ArrayList<>(plan.newUsers.size());
+        plan.newUsers.keySet().forEach(email -> baseUsernames.add(email.split("@")[0]));
+        List<String> usernames = baseUsernames.isEmpty() ? List.of() : usernameAllocator.allocateAll(baseUsernames);
+        
+        transactionTemplate.executeWithoutResult(status -> writeBatch(plan, usernames, progress));
+        plan.emails.forEach(knownEmailIndex::add);
+        
+        // Cached profiles of these users are now stale (unknown emails are never cached)
+        plan.emails.forEach(userProfileCache::evict);
+        
+        progress.rowsRead += batch.size();
+        batch.clear();
+        progress.reportIfDue();
+    }
+    
+    private BatchPlan planBatch(List<UserImportRecord> batch, Progress progress) {
+        BatchPlan plan = new BatchPlan();
+        for (UserImportRecord record : batch) {
+            if (isValid(record)) {
+                record.setEmail(record.getEmail().trim());
+                plan.valid.add(record);
+                plan.emails.add(record.getEmail());
+            } else {
+                progress.rowsInvalid++;
+            }
+        }
+        
+        // Existing users and the providers they have linked, keyed by email
+        for (User user : userRepository.findWithProvidersByEmailIn(plan.emails)) {
+            plan.userIds.put(user.getEmail(), user.getId());
+            Set<String> providerNames = new HashSet<>();
+            user.getOauth2Providers().forEach(provider -> providerNames.add(provider.getProviderName()));
+            plan.providerNames.put(user.getEmail(), providerNames);
+        }
+        
+        // Provider links that already exist, as providerName -> providerUserIds
+        Map<String, Set<String>> requestedLinks = new HashMap<>();
+        for (UserImportRecord record : plan.valid) {
+            if (record.getProviderName() != null) {
+                requestedLinks.computeIfAbsent(record.getProviderName(), name -> new HashSet<>())
+                    .add(record.getProviderUserId());
+            }
+        }
+        requestedLinks.forEach((providerName, providerUserIds) -> plan.existingLinks.put(providerName,
+            new HashSet<>(oauth2ProviderRepository.findLinkedProviderUserIds(providerName, providerUserIds))));
+        
+        // A provider account belongs to the first row that names it; later rows naming it are skipped,
+        // otherwise each would create a user left without the link. Links committed by earlier
+        // batches are already in existingLinks.
+        Set<String> claimedLinks = new HashSet<>();
+        for (UserImportRecord record : plan.valid) {
+            if (record.getProviderName() != null && !isLinked(record, plan.existingLinks)
+                    && !claimedLinks.add(record.getProviderName() + ':' + record.getProviderUserId())) {
+                plan.duplicates.add(record);
+            }
+        }
+        
+        // New users, first row per email wins
+        for (UserImportRecord record : plan.valid) {
+            if (!plan.userIds.containsKey(record.getEmail()) && !isLinked(record, plan.existingLinks)
+                    && !plan.duplicates.contains(record)) {
+                plan.newUsers.putIfAbsent(record.getEmail(), record);
+            }
+        }
+        return plan;
+    }
+    
+    private void writeBatch(BatchPlan plan, List<String> usernames, Progress progress) {
+        Map<String, User> users = new HashMap<>();
+        int index = 0;
+        for (UserImportRecord record : plan.newUsers.values()) {
+            User user = new User();
+            user.setEmail(record.getEmail());
+            user.setFirstName(record.getFirstName());
+            user.setLastName(record.getLastName());
+            user.setAvatarUrl(record.getAvatarUrl());
+            user.setUsername(usernames.get(index++));
+            entityManager.persist(user);
+            users.put(user.getEmail(), user);
+            plan.providerNames.put(user.getEmail(), new HashSet<>());
+            progress.usersCreated++;
+        }
+        
+        // Provider links; a user keeps at most one link per provider
+        for (UserImportRecord record : plan.valid) {
+            if (record.getProviderName() == null) {
+                if (plan.newUsers.get(record.getEmail()) != record) {
+                    progress.rowsSkipped++;
+                }
+                continue;
+            }
+            Set<String> providerNames = plan.providerNames.get(record.getEmail());
+            if (plan.duplicates.contains(record) || isLinked(record, plan.existingLinks)
+                    || providerNames.contains(record.getProviderName())) {
+                progress.rowsSkipped++;
+                continue;
+            }
+            // Existing users are referenced by id; linking needs only their foreign key
+            User user = users.computeIfAbsent(record.getEmail(),
+                email -> entityManager.getReference(User.class, plan.userIds.get(email)));
+            entityManager.persist(new OAuth2Provider(user, record.getProviderName(), record.getProviderUserId()));
+            providerNames.add(record.getProviderName());
+            plan.existingLinks.get(record.getProviderName()).add(record.getProviderUserId());
+            progress.providersLinked++;
+        }
+        
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    private static boolean isValid(UserImportRecord record) {
+        String email = record.getEmail();
+        if (email == null || email.isBlank() || email.indexOf('@') <= 0) {
+            return false;
+        }
+        return (record.getProviderName() == null) == (record.getProviderUserId() == null);
+    }
+    
+    private static boolean isLinked(UserImportRecord record, Map<String, Set<String>> existingLinks) {
+        return record.getProviderName() != null
+            && existingLinks.get(record.getProviderName()).contains(record.getProviderUserId());
+    }
+    
+    /**
+     * What one batch will write, worked out from the existing rows before its transaction opens
+     */
+    private static class BatchPlan {
+        private final List<UserImportRecord> valid = new ArrayList<>();
+        private final Set<String> emails = new HashSet<>();
+        private final Map<String, Long> userIds = new HashMap<>();
+        private final Map<String, Set<String>> providerNames = new HashMap<>();
+        private final Map<String, Set<String>> existingLinks = new HashMap<>();
+        private final Set<UserImportRecord> duplicates = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Map<String, UserImportRecord> newUsers = new LinkedHashMap<>();
+    }
+    
+    /**
+     * Running counters of one import, logged as rows per second at each progress interval
+     */
+    private class Progress {
+        private final long startedAt = System.nanoTime();
+        private long rowsRead;
+        private long usersCreated;
+        private long providersLinked;
+        private long rowsSkipped;
+        private long rowsInvalid;
+        private long nextReportAt = progressInterval;
+        
+        void reportIfDue() {
+            if (rowsRead >= nextReportAt) {
+                nextReportAt = rowsRead + progressInterval;
+                logger.info("User import: {} rows read, {} users created, {} rows/s",
+                    rowsRead, usersCreated, rowsPerSecond());
+            }
+        }
+        
+        long elapsedMs() {
+            return (System.nanoTime() - startedAt) / 1_000_000;
+        }
+        
+        long rowsPerSecond() {
+            long elapsedMs = Math.max(1, elapsedMs());
+            return rowsRead * 1000 / elapsedMs;
+        }
+        
+        UserImportResult finish() {
+            UserImportResult result = new UserImportResult();
+            result.setRowsRead(rowsRead);
+            result.setUsersCreated(usersCreated);
+            result.setProvidersLinked(providersLinked);
+            result.setRowsSkipped(rowsSkipped);
+            result.setRowsInvalid(rowsInvalid);
+            result.setElapsedMs(elapsedMs());
+            result.setRowsPerSecond(rowsPerSecond());
+            logger.info("User import finished: {} rows read, {} users created, {} providers linked, "
+                + "{} skipped, {} invalid in {} ms ({} rows/s)", rowsRead, usersCreated, providersLinked,
+                rowsSkipped, rowsInvalid, result.getElapsedMs(), result.getRowsPerSecond());
+            return result;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.electronapp.authbackend.service;
+
+import com.electronapp.authbackend.dto.UserDTO;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cached profiles by email, kept from going stale when a lookup races a write.
+ * A lookup takes a stamp before reading the database and puts its result with that stamp;
+ * a write bumps the stamp after its commit and evicts. A put whose stamp has moved on is
+ * dropped again, so a profile read before a commit cannot outlive that commit's eviction.
+ */
+@Component
+public class UserProfileCache {
+    
+    // Stamps are shared by hash; an unrelated write only costs an extra cache miss
+    private static final int STRIPES = 1024;
+    
+    @Autowired
+    private CacheManager cacheManager;
+    
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+    
+    private Cache cache;
+    
+    @PostConstruct
+    public void init() {
+        cache = cacheManager.getCache(UserService.USER_PROFILE_CACHE);
+    }
+    
+    /**
+     * Cached profile, or null on a miss
+     */
+    public UserDTO get(String email) {
+        return cache.get(email, UserDTO.class);
+    }
+    
+    /**
+     * Stamp to take before reading a profile from the database
+     */
+    public long stamp(String email) {
+        return stamps.get(stripe(email));
+    }
+    
+    /**
+     * Cache a profile read after the given stamp was taken, unless a write has committed since
+     */
+    public void put(String email, long stamp, UserDTO profile) {
+        cache.put(email, profile);
+        // Checked after the put: a write that bumped before this check is caught here, and one
+        // that bumps after it evicts this entry itself
+        if (stamps.get(stripe(email)) != stamp) {
+            cache.evict(email);
+        }
+    }
+    
+    /**
+     * Drop the cached profile after a write to the user or its provider links has committed
+     */
+    public void evict(String email) {
+        stamps.incrementAndGet(stripe(email));
+        cache.evict(email);
+    }
+    
+    private static int stripe(String email) {
+        int hash = email.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
@@ -3,15 +3,26 @@ package com.electronapp.authbackend.service;
 import com.electronapp.authbackend.dto.OAuth2ProviderDTO;
 import com.electronapp.authbackend.dto.UserDTO;
 import com.electronapp.authbackend.entity.OAuth2Provider;
+import com.electronapp.authbackend.entity.Role;
 import com.electronapp.authbackend.entity.User;
 import com.electronapp.authbackend.repository.OAuth2ProviderRepository;
 import com.electronapp.authbackend.repository.UserRepository;
+import com.electronapp.authbackend.util.StripedLocks;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 /**
@@ -20,6 +31,13 @@ import java.util.stream.Collectors;
 @Service
 public class UserService {
     
+    public static final String USER_PROFILE_CACHE = "userProfiles";
+    
+    private static final int MAX_UPSERT_ATTEMPTS = 3;
+    
+    // Serializes concurrent callbacks for the same provider account within this instance
+    private final StripedLocks providerAccountLocks = new StripedLocks(256);
+    
     @Autowired
     private UserRepository userRepository;
     
@@ -29,21 +47,131 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
     
+    @Autowired
+    private UsernameAllocator usernameAllocator;
+    
+    @Autowired
+    private KnownEmailIndex knownEmailIndex;
+    
+    @Autowired
+    private UserProfileCache userProfileCache;
+    
+    @Autowired
+    private RoleVersionRegistry roleVersionRegistry;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    private Timer loginLookupTimer;
+    private Timer profileLookupTimer;
+    private Timer upsertSuccessTimer;
+    private Timer upsertFailureTimer;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        
+        loginLookupTimer = lookupTimer("login");
+        profileLookupTimer = lookupTimer("profile");
+        upsertSuccessTimer = upsertTimer("success");
+        upsertFailureTimer = upsertTimer("failure");
+    }
+    
+    private Timer lookupTimer(String query) {
+        return Timer.builder("auth.user.lookup")
+            .description("Time to load a user with its OAuth2 providers by email")
+            .tag("query", query)
+            .register(meterRegistry);
+    }
+    
+    private Timer upsertTimer(String outcome) {
+        return Timer.builder("auth.oauth2.upsert")
+            .description("Time to create or link the user of an OAuth2 login, including lock waits and retries")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+    
     /**
-     * Find user by email
+     * Find user by email, with its OAuth2 providers already loaded
      */
     public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+        long start = System.nanoTime();
+        Optional<User> user = userRepository.findWithProvidersByEmail(email);
+        loginLookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return user;
     }
     
     /**
-     * Create or update user from OAuth2 authentication
+     * Get the profile of a user by email, served from the profile cache when possible
+     */
+    public Optional<UserDTO> getUserProfile(String email) {
+        UserDTO cached = userProfileCache.get(email);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        
+        // The timer measures cache misses only, i.e. database lookups
+        long stamp = userProfileCache.stamp(email);
+        long start = System.nanoTime();
+        Optional<User> user = userRepository.findWithProvidersByEmail(email);
+        profileLookupTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        
+        // Unknown emails are not cached
+        Optional<UserDTO> profile = user.map(this::convertToUserDTO);
+        profile.ifPresent(dto -> userProfileCache.put(email, stamp, dto));
+        return profile;
+    }
+    
+    /**
+     * Create or update user from OAuth2 authentication.
+     * The lookups, the username allocation and the inserts run in one transaction. Concurrent
+     * callbacks for one provider account run one at a time on this instance; a signup that loses
+     * a race on another key (the same email from another provider, or another instance) fails on
+     * a unique constraint and is retried, finding the rows the winner created.
+     * The cached profile is evicted after the commit.
+     *
+     * @throws ProviderAlreadyLinkedException if the user with this email is already linked to a
+     *         different account of the same provider
      */
     public User createOrUpdateOAuth2User(String email, String firstName, String lastName, 
                                        String avatarUrl, String providerName, String providerUserId) {
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        ReentrantLock lock = providerAccountLocks.get(providerName + ':' + providerUserId);
+        lock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    User user = transactionTemplate.execute(status -> 
+                        upsertOAuth2User(email, firstName, lastName, avatarUrl, providerName, providerUserId));
+                    userProfileCache.evict(email);
+                    knownEmailIndex.add(user.getEmail());
+                    succeeded = true;
+                    return user;
+                } catch (DataIntegrityViolationException e) {
+                    // A concurrent signup committed the same email or link first; look again
+                    if (attempt >= MAX_UPSERT_ATTEMPTS) {
+                        throw e;
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+            (succeeded ? upsertSuccessTimer : upsertFailureTimer)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+    
+    private User upsertOAuth2User(String email, String firstName, String lastName, 
+                                  String avatarUrl, String providerName, String providerUserId) {
         // Check if user already exists with this OAuth2 provider
         Optional<OAuth2Provider> existingProvider = oauth2ProviderRepository
-            .findByProviderNameAndProviderUserId(providerName, providerUserId);
+            .findWithUserByProviderNameAndProviderUserId(providerName, providerUserId);
         
         if (existingProvider.isPresent()) {
             // User already exists, return existing user
@@ -51,12 +179,17 @@ public class UserService {
         }
         
         // Check if user exists by email
-        Optional<User> existingUser = userRepository.findByEmail(email);
+        Optional<User> existingUser = userRepository.findWithProvidersByEmail(email);
         User user;
         
         if (existingUser.isPresent()) {
-            // User exists, link new OAuth2 provider
+            // User exists, link new OAuth2 provider unless another account of it is linked already
             user = existingUser.get();
+            for (OAuth2Provider provider : user.getOauth2Providers()) {
+                if (provider.getProviderName().equals(providerName)) {
+                    throw new ProviderAlreadyLinkedException(email, providerName);
+                }
+            }
         } else {
             // Create new user
             user = new User();
@@ -68,19 +201,43 @@ public class UserService {
             // Generate username from email if not provided
             if (user.getUsername() == null) {
                 String username = email.split("@")[0];
-                user.setUsername(makeUsernameUnique(username));
+                user.setUsername(usernameAllocator.allocateInTransaction(username));
             }
             
             user = userRepository.save(user);
         }
         
-        // Create OAuth2 provider link
-        OAuth2Provider oauth2Provider = new OAuth2Provider(user, providerName, providerUserId);
-        oauth2ProviderRepository.save(oauth2Provider);
-        
+        // Sequence ids defer the inserts to the commit-time flush, which sends them together
+        oauth2ProviderRepository.save(new OAuth2Provider(user, providerName, providerUserId));
         return user;
     }
     
+    /**
+     * Replace the stored password hash of a user
+     */
+    public void updatePasswordHash(User user, String passwordHash) {
+        user.setPasswordHash(passwordHash);
+        userRepository.save(user);
+    }
+    
+    /**
+     * Replace the roles of a user. Access tokens issued with the previous roles stop being
+     * accepted once the change is saved, so the user picks up the new roles on the next refresh.
+     */
+    public Optional<User> updateRoles(String email, Set<Role> roles) {
+        Optional<User> userOpt = userRepository.findByEmail(email);
+        if (userOpt.isEmpty()) {
+            return userOpt;
+        }
+        
+        User user = userOpt.get();
+        user.setRoles(Role.maskOf(roles));
+        user.setRolesVersion(user.getRolesVersion() + 1);
+        user = userRepository.save(user);
+        roleVersionRegistry.update(user.getEmail(), user.getRolesVersion());
+        return Optional.of(user);
+    }
+    
     /**
      * Convert User entity to UserDTO
      */
@@ -106,21 +263,6 @@ public class UserService {
         return userDTO;
     }
     
-    /**
-     * Make username unique by appending numbers if necessary
-     */
-    private String makeUsernameUnique(String baseUsername) {
-        String username = baseUsername;
-        int counter = 1;
-        
-        while (userRepository.existsByUsername(username)) {
-            username = baseUsername + counter;
-            counter++;
-        }
-        
-        return username;
-    }
-    
     /**
      * Disconnect OAuth2 provider from user
      */
@@ -135,6 +277,7 @@ public class UserService {
         
         if (providerOpt.isPresent()) {
             oauth2ProviderRepository.delete(providerOpt.get());
+            userProfileCache.evict(userEmail);
             return true;
         }
         
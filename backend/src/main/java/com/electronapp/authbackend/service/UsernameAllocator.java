@@ -0,0 +1,197 @@
+package com.electronapp.authbackend.service;
+
+import com.electronapp.authbackend.entity.UsernameSequence;
+import com.electronapp.authbackend.repository.UserRepository;
+import com.electronapp.authbackend.repository.UsernameSequenceRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Allocates unique usernames from a per-prefix counter row.
+ * The row is locked for the duration of the allocation, so concurrent signups
+ * sharing a prefix are serialized and never receive the same suffix.
+ */
+@Service
+public class UsernameAllocator {
+    
+    private static final int MAX_ATTEMPTS = 3;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private UsernameSequenceRepository usernameSequenceRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    /**
+     * Allocate the base username, or the base with the next free numeric suffix
+     */
+    public String allocate(String baseUsername) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> allocateLocked(baseUsername));
+            } catch (DataIntegrityViolationException e) {
+                // Another signup created the counter row first; the retry locks that row instead
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Allocate in the caller's transaction, so the name commits together with the row that uses it.
+     * The counter row stays locked until the caller commits; if a concurrent signup created the
+     * counter row first, the caller's transaction fails and is expected to retry.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public String allocateInTransaction(String baseUsername) {
+        return allocateLocked(baseUsername);
+    }
+    
+    /**
+     * Allocate one username per base username, in the same order. Names are reserved from the
+     * counters in blocks and checked for collisions with a single query per round.
+     */
+    public List<String> allocateAll(List<String> baseUsernames) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> allocateAllLocked(baseUsernames));
+            } catch (DataIntegrityViolationException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    private List<String> allocateAllLocked(List<String> baseUsernames) {
+        Map<String, Integer> pending = new TreeMap<>();
+        for (String baseUsername : baseUsernames) {
+            pending.merge(baseUsername, 1, Integer::sum);
+        }
+        
+        // Lock the existing counter rows in one query and create the missing ones
+        Map<String, UsernameSequence> sequences = new HashMap<>();
+        for (UsernameSequence sequence : usernameSequenceRepository.findAllForUpdate(pending.keySet())) {
+            sequences.put(sequence.getPrefix(), sequence);
+        }
+        boolean created = false;
+        for (String prefix : pending.keySet()) {
+            if (!sequences.containsKey(prefix)) {
+                UsernameSequence sequence = new UsernameSequence(prefix);
+                entityManager.persist(sequence);
+                sequences.put(prefix, sequence);
+                created = true;
+            }
+        }
+        if (created) {
+            // Send the inserts now as one JDBC batch, so a counter row a concurrent signup created first
+            // fails here rather than at commit; the queries below read users only and would not
+            // flush them. Flushed through the repository so the failure is translated to the
+            // DataIntegrityViolationException that allocateAll retries on.
+            usernameSequenceRepository.flush();
+        }
+        
+        Map<String, List<String>> allocated = new HashMap<>();
+        Set<String> claimed = new HashSet<>();
+        while (!pending.isEmpty()) {
+            Map<String, String> prefixByCandidate = new HashMap<>();
+            Map<String, Integer> retry = new TreeMap<>();
+            pending.forEach((prefix, count) -> {
+                UsernameSequence sequence = sequences.get(prefix);
+                for (int i = 0; i < count; i++) {
+                    int suffix = sequence.getNextSuffix();
+                    String candidate = suffix == 0 ? prefix : prefix + suffix;
+                    sequence.setNextSuffix(suffix + 1);
+                    // Overlapping prefixes can produce the same name ("john" + 1 and "john1" + 0);
+                    // only the first claims it and the other moves on to its next suffix
+                    if (claimed.add(candidate)) {
+                        prefixByCandidate.put(candidate, prefix);
+                    } else {
+                        retry.merge(prefix, 1, Integer::sum);
+                    }
+                }
+            });
+            
+            // Names taken outside the counters are replaced by the next suffix in another round
+            Set<String> taken = prefixByCandidate.isEmpty() ? Set.of()
+                    : new HashSet<>(userRepository.findExistingUsernames(prefixByCandidate.keySet()));
+            pending = retry;
+            for (Map.Entry<String, String> candidate : prefixByCandidate.entrySet()) {
+                if (taken.contains(candidate.getKey())) {
+                    pending.merge(candidate.getValue(), 1, Integer::sum);
+                } else {
+                    allocated.computeIfAbsent(candidate.getValue(), prefix -> new ArrayList<>()).add(candidate.getKey());
+                }
+            }
+        }
+        
+        Map<String, Iterator<String>> namesByPrefix = new HashMap<>();
+        allocated.forEach((prefix, names) -> namesByPrefix.put(prefix, names.iterator()));
+        List<String> usernames = new ArrayList<>(baseUsernames.size());
+        for (String baseUsername : baseUsernames) {
+            usernames.add(namesByPrefix.get(baseUsername).next());
+        }
+        return usernames;
+    }
+    
+    private UsernameSequence lockSequence(String prefix) {
+        Optional<UsernameSequence> sequenceOpt = usernameSequenceRepository.findForUpdate(prefix);
+        
+        if (sequenceOpt.isEmpty()) {
+            // First signup for this prefix: create the counter row, which fails if a concurrent signup won
+            usernameSequenceRepository.insertPrefix(prefix);
+            sequenceOpt = usernameSequenceRepository.findForUpdate(prefix);
+        }
+        
+        return sequenceOpt.orElseThrow();
+    }
+    
+    private String allocateLocked(String baseUsername) {
+        UsernameSequence sequence = lockSequence(baseUsername);
+        
+        // The counter already skips every name it handed out, so this normally checks a
+        // single candidate; it only loops past names taken outside the counter
+        String username;
+        do {
+            int suffix = sequence.getNextSuffix();
+            username = suffix == 0 ? baseUsername : baseUsername + suffix;
+            sequence.setNextSuffix(suffix + 1);
+        } while (userRepository.existsByUsername(username));
+        
+        return username;
+    }
+}
@@ -0,0 +1,80 @@
+package com.electronapp.authbackend.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free token-bucket rate limiter over an unbounded key space in fixed memory.
+ * Each key's bucket is kept as a GCRA "theoretical arrival time" (the instant its bucket would
+ * be full again) in a count-min sketch: every key maps to one cell per row, and the smallest
+ * of its cells is the estimate. Colliding keys can only make a bucket look emptier than it is,
+ * so the limiter may throttle a key early but never lets one exceed its rate.
+ */
+public class RateLimitSketch {
+
+    private final AtomicLongArray cells;
+    private final int rows;
+    private final int width;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    // Cells hold times relative to this, so an untouched cell (0) always reads as a full bucket
+    private final long originNanos = System.nanoTime() - 1;
+
+    /**
+     * @param burst       requests a key may make back to back
+     * @param perMinute   sustained requests per minute once the burst is spent
+     * @param width       cells per row; collisions become rare once it is well above the active keys
+     * @param rows        independent hash rows
+     */
+    public RateLimitSketch(int burst, int perMinute, int width, int rows) {
+        if (burst < 1 || perMinute < 1 || width < 1 || rows < 1) {
+            throw new IllegalArgumentException("Rate limit parameters must be positive");
+        }
+        this.rows = rows;
+        this.width = width;
+        this.cells = new AtomicLongArray(Math.multiplyExact(rows, width));
+        this.emissionIntervalNanos = 60_000_000_000L / perMinute;
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+    }
+
+    /**
+     * Take one token for the key.
+     * Returns 0 if the request is allowed, otherwise the nanoseconds until it would be.
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime() - originNanos;
+        long hash = BloomFilter.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < rows; row++) {
+            estimate = Math.min(estimate, cells.get(index(row, h1, h2)));
+        }
+
+        long tat = Math.max(estimate, now);
+        long wait = tat - burstToleranceNanos - now;
+        if (wait > 0) {
+            return wait;
+        }
+
+        // Conservative update: raise each cell only as far as this key's new arrival time.
+        // Requests racing on the same estimate may all pass, so contention can overshoot slightly.
+        long newTat = tat + emissionIntervalNanos;
+        for (int row = 0; row < rows; row++) {
+            int index = index(row, h1, h2);
+            long current;
+            do {
+                current = cells.get(index);
+                if (current >= newTat) {
+                    break;
+                }
+            } while (!cells.compareAndSet(index, current, newTat));
+        }
+        return 0;
+    }
+
+    private int index(int row, int h1, int h2) {
+        int combined = h1 + (row + 1) * h2;
+        return row * width + (combined < 0 ? ~combined : combined) % width;
+    }
+}
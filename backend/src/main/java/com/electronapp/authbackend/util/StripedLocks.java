@@ -0,0 +1,32 @@
+package com.electronapp.authbackend.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks shared by hash, so per-key mutual exclusion needs no per-key allocation.
+ * Unrelated keys occasionally share a stripe and wait on each other, which is harmless.
+ * ReentrantLock rather than synchronized keeps waiting virtual threads unpinned.
+ */
+public class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Lock guarding the given key
+     */
+    public ReentrantLock get(Object key) {
+        int hash = key.hashCode();
+        // Spread the high bits down, as HashMap does, before masking
+        return locks[(hash ^ (hash >>> 16)) & mask];
+    }
+}
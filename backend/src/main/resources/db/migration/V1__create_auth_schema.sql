@@ -0,0 +1,37 @@
+-- Users and their linked OAuth2 provider accounts
+
+CREATE TABLE users (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    username VARCHAR(255),
+    first_name VARCHAR(255),
+    last_name VARCHAR(255),
+    avatar_url VARCHAR(255),
+    password_hash VARCHAR(255),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT uq_users_email UNIQUE (email),
+    CONSTRAINT uq_users_username UNIQUE (username)
+);
+
+CREATE TABLE oauth2_providers (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    provider_name VARCHAR(255) NOT NULL,
+    provider_user_id VARCHAR(255) NOT NULL,
+    access_token VARCHAR(255),
+    refresh_token VARCHAR(255),
+    token_expires_at TIMESTAMP(6),
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6),
+    CONSTRAINT fk_oauth2_providers_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE,
+    -- Backs findByProviderNameAndProviderUserId on every OAuth2 callback
+    CONSTRAINT uq_oauth2_providers_provider_user UNIQUE (provider_name, provider_user_id),
+    -- Backs findByUserAndProviderName and the user_id foreign key lookups
+    CONSTRAINT uq_oauth2_providers_user_provider UNIQUE (user_id, provider_name)
+);
+
+CREATE TABLE username_sequences (
+    prefix VARCHAR(255) NOT NULL PRIMARY KEY,
+    next_suffix INTEGER NOT NULL
+);
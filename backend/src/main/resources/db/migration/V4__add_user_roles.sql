@@ -0,0 +1,4 @@
+-- Role bitmask (see Role: bit 0 = USER, bit 1 = ADMIN) and a version bumped on every role change
+
+ALTER TABLE users ADD COLUMN roles INTEGER DEFAULT 1 NOT NULL;
+ALTER TABLE users ADD COLUMN roles_version INTEGER DEFAULT 0 NOT NULL;
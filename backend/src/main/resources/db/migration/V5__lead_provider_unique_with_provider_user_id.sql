@@ -0,0 +1,5 @@
+-- Lead the (provider, external id) unique index with the external id, so the bulk import's
+-- "provider_user_id IN (...)" lookups are index seeks rather than a scan of every row of the provider
+
+ALTER TABLE oauth2_providers DROP CONSTRAINT uq_oauth2_providers_provider_user;
+ALTER TABLE oauth2_providers ADD CONSTRAINT uq_oauth2_providers_provider_user UNIQUE (provider_user_id, provider_name);
@@ -0,0 +1,13 @@
+-- Sequence-generated ids, so Hibernate can batch inserts (IDENTITY forces one insert per round trip).
+-- Hibernate reserves 50 ids per sequence call; each sequence restarts one block past the highest existing id.
+
+CREATE SEQUENCE users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE oauth2_providers_seq START WITH 1 INCREMENT BY 50;
+
+ALTER SEQUENCE users_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM users);
+ALTER SEQUENCE oauth2_providers_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 50 FROM oauth2_providers);
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE users ALTER COLUMN id SET DEFAULT NEXT VALUE FOR users_seq;
+ALTER TABLE oauth2_providers ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE oauth2_providers ALTER COLUMN id SET DEFAULT NEXT VALUE FOR oauth2_providers_seq;
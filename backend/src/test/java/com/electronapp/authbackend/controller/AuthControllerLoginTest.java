@@ -0,0 +1,78 @@
+package com.electronapp.authbackend.controller;
+
+import com.electronapp.authbackend.entity.User;
+import com.electronapp.authbackend.repository.UserRepository;
+import com.electronapp.authbackend.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Password login, including the rehash of a hash made with a lower BCrypt cost
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class AuthControllerLoginTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Test
+    void loginUpgradesWeakHashAndIssuesTokens() throws Exception {
+        String email = "weakhash@login.test";
+        User user = userService.createOrUpdateOAuth2User(email, "Weak", "Hash", null, "google", "g-weakhash-1");
+        String weakHash = new BCryptPasswordEncoder(4).encode("secret");
+        userService.updatePasswordHash(user, weakHash);
+
+        MvcResult pending = mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"secret\"}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.refreshToken").isNotEmpty());
+
+        String storedHash = userRepository.findByEmail(email).orElseThrow().getPasswordHash();
+        assertThat(storedHash).isNotEqualTo(weakHash);
+        assertThat(passwordEncoder.upgradeEncoding(storedHash)).isFalse();
+        assertThat(passwordEncoder.matches("secret", storedHash)).isTrue();
+    }
+
+    @Test
+    void wrongPasswordIsRejected() throws Exception {
+        String email = "wrongpass@login.test";
+        User user = userService.createOrUpdateOAuth2User(email, "Wrong", "Pass", null, "google", "g-wrongpass-1");
+        userService.updatePasswordHash(user, passwordEncoder.encode("secret"));
+
+        MvcResult pending = mockMvc.perform(post("/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + email + "\",\"password\":\"guess\"}"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(pending))
+            .andExpect(status().isBadRequest());
+    }
+}
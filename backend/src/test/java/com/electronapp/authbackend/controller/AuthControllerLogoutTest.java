@@ -0,0 +1,73 @@
+package com.electronapp.authbackend.controller;
+
+import com.electronapp.authbackend.entity.User;
+import com.electronapp.authbackend.security.JwtUtils;
+import com.electronapp.authbackend.service.RefreshTokenService;
+import com.electronapp.authbackend.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Logout revokes the refresh token with or without a valid access token
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class AuthControllerLogoutTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void logoutWithoutAccessTokenStillRevokesRefreshToken() throws Exception {
+        User user = userService.createOrUpdateOAuth2User("expired@logout.test", "L", "O", null, "google", "g-logout-1");
+        String refreshToken = refreshTokenService.issue(user);
+
+        mockMvc.perform(post("/auth/logout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+            .andExpect(status().isOk());
+
+        assertThat(refreshTokenService.rotate(refreshToken)).isEmpty();
+    }
+
+    @Test
+    void logoutWithAccessTokenRevokesBoth() throws Exception {
+        User user = userService.createOrUpdateOAuth2User("both@logout.test", "L", "O", null, "google", "g-logout-2");
+        String accessToken = jwtUtils.generateJwtToken(user);
+        String refreshToken = refreshTokenService.issue(user);
+
+        mockMvc.perform(post("/auth/logout")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}"))
+            .andExpect(status().isOk());
+
+        assertThat(refreshTokenService.rotate(refreshToken)).isEmpty();
+        mockMvc.perform(get("/auth/me").header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logoutWithNothingToRevokeIsUnauthorized() throws Exception {
+        mockMvc.perform(post("/auth/logout")).andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,90 @@
+package com.electronapp.authbackend.controller;
+
+import com.electronapp.authbackend.entity.User;
+import com.electronapp.authbackend.security.JwtUtils;
+import com.electronapp.authbackend.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Number of SQL statements issued by the profile and provider endpoints
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureMockMvc
+class AuthControllerQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void profileIsLoadedWithOneQueryThenServedFromCache() throws Exception {
+        String token = signUp("profile@queries.test", "g-profile-1");
+        userService.createOrUpdateOAuth2User("profile@queries.test", "Q", "C", null, "instagram", "i-profile-1");
+
+        long statements = countStatements(get("/auth/me"), token, 200);
+        assertThat(statements).isEqualTo(1);
+
+        statements = countStatements(get("/auth/me"), token, 200);
+        assertThat(statements).isZero();
+    }
+
+    @Test
+    void disconnectProviderUsesConstantStatements() throws Exception {
+        String token = signUp("disconnect@queries.test", "g-disconnect-1");
+        userService.createOrUpdateOAuth2User("disconnect@queries.test", "Q", "C", null, "instagram", "i-disconnect-1");
+
+        // Look up the user, look up the link, delete the link
+        long statements = countStatements(delete("/auth/oauth2/google"), token, 200);
+        assertThat(statements).isEqualTo(3);
+
+        // A provider that is not linked costs the two lookups only
+        statements = countStatements(delete("/auth/oauth2/google"), token, 400);
+        assertThat(statements).isEqualTo(2);
+    }
+
+    private String signUp(String email, String providerUserId) {
+        User user = userService.createOrUpdateOAuth2User(email, "Q", "C", null, "google", providerUserId);
+        return jwtUtils.generateJwtToken(user);
+    }
+
+    private long countStatements(MockHttpServletRequestBuilder request, String token, int expectedStatus)
+            throws Exception {
+        statistics.clear();
+        mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+            .andExpect(status().is(expectedStatus));
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,67 @@
+package com.electronapp.authbackend.security;
+
+import com.electronapp.authbackend.security.TokenRejectionMetrics.Reason;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Junk tokens must be rejected and counted by reason, not escape verify() as exceptions
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class JwtUtilsTest {
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TokenRejectionMetrics rejectionMetrics;
+
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+
+    @Test
+    void badBase64IsCountedAsMalformed() {
+        assertRejected("@@@.e30.c2ln", Reason.MALFORMED);
+    }
+
+    @Test
+    void wrongClaimTypeIsCountedAsMalformed() {
+        assertRejected(sign(Jwts.builder().setSubject("type@jwt.test").addClaims(Map.of("exp", "soon"))),
+            Reason.MALFORMED);
+    }
+
+    @Test
+    void tokenNotYetValidIsCountedAsOther() {
+        assertRejected(sign(Jwts.builder().setSubject("early@jwt.test")
+            .setNotBefore(new Date(System.currentTimeMillis() + 60_000))), Reason.OTHER);
+    }
+
+    @Test
+    void emptyTokenIsCountedAsEmpty() {
+        assertRejected("", Reason.EMPTY);
+    }
+
+    private void assertRejected(String token, Reason reason) {
+        double before = rejectionMetrics.count(reason);
+
+        assertThat(jwtUtils.verify(token)).isNull();
+        assertThat(rejectionMetrics.count(reason)).isEqualTo(before + 1);
+    }
+
+    private String sign(JwtBuilder builder) {
+        Key key = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        return builder.signWith(key).compact();
+    }
+}
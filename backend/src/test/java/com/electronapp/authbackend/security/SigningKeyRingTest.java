@@ -0,0 +1,65 @@
+package com.electronapp.authbackend.security;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keys must be published in the JWKS before they sign anything
+ */
+class SigningKeyRingTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void nextKeyIsPublishedBeforeItSigns() throws Exception {
+        SigningKeyRing ring = SigningKeyRing.asymmetric(SignatureAlgorithm.ES256);
+        String nextKeyId = ring.getNextKeyId();
+
+        assertThat(nextKeyId).isNotEqualTo(ring.getActiveKeyId());
+        assertThat(publishedKeyIds(ring)).containsExactly(nextKeyId, ring.getActiveKeyId());
+
+        SigningKeyRing rotated = ring.rotate(Long.MAX_VALUE);
+
+        assertThat(rotated.getActiveKeyId()).isEqualTo(nextKeyId);
+        assertThat(publishedKeyIds(rotated))
+            .containsExactly(rotated.getNextKeyId(), nextKeyId, ring.getActiveKeyId());
+    }
+
+    @Test
+    void tokensSignedBeforeRotationStillVerify() {
+        SigningKeyRing ring = SigningKeyRing.asymmetric(SignatureAlgorithm.RS256);
+        String token = sign(ring, "before@rotation.test");
+
+        SigningKeyRing rotated = ring.rotate(Long.MAX_VALUE);
+
+        assertThat(rotated.getParser().parseClaimsJws(token).getBody().getSubject())
+            .isEqualTo("before@rotation.test");
+        assertThat(rotated.getParser().parseClaimsJws(sign(rotated, "after@rotation.test")).getBody().getSubject())
+            .isEqualTo("after@rotation.test");
+    }
+
+    private static String sign(SigningKeyRing ring, String subject) {
+        return Jwts.builder()
+            .setHeaderParam(JwsHeader.KEY_ID, ring.getActiveKeyId())
+            .setSubject(subject)
+            .signWith(ring.getSigningKey(), ring.getAlgorithm())
+            .compact();
+    }
+
+    private static List<String> publishedKeyIds(SigningKeyRing ring) throws Exception {
+        List<String> keyIds = new ArrayList<>();
+        for (JsonNode key : objectMapper.readTree(ring.getJwks()).get("keys")) {
+            keyIds.add(key.get("kid").asText());
+        }
+        return keyIds;
+    }
+}
@@ -0,0 +1,75 @@
+package com.electronapp.authbackend.service;
+
+import com.electronapp.authbackend.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exports page by id, keep each user's providers on one line, and hold no pooled connection
+ * while the client reads
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class UserExportServiceTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private UserExportService userExportService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void pagesByIdWithoutHoldingAConnectionWhileWriting() throws Exception {
+        User first = userService.createOrUpdateOAuth2User("first@export.test", "First", "Export", null, "google", "g-export-1");
+        userService.createOrUpdateOAuth2User("first@export.test", "First", "Export", null, "instagram", "i-export-1");
+        userService.createOrUpdateOAuth2User("second@export.test", "Second", "Export", null, "google", "g-export-2");
+        userService.createOrUpdateOAuth2User("third@export.test", "Third", "Export", null, "google", "g-export-3");
+
+        List<Integer> activeWhileWriting = new ArrayList<>();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] bytes, int offset, int length) {
+                activeWhileWriting.add(((HikariDataSource) dataSource).getHikariPoolMXBean().getActiveConnections());
+                super.write(bytes, offset, length);
+            }
+        };
+
+        long written = userExportService.export(first.getId() - 1, 2, out);
+
+        assertThat(written).isEqualTo(2);
+        List<JsonNode> users = lines(out);
+        assertThat(users).extracting(user -> user.get("email").asText())
+            .containsExactly("first@export.test", "second@export.test");
+        assertThat(users.get(0).get("oauth2Providers")).hasSize(2);
+        assertThat(activeWhileWriting).isNotEmpty().containsOnly(0);
+
+        ByteArrayOutputStream next = new ByteArrayOutputStream();
+        userExportService.export(users.get(1).get("id").asLong(), 2, next);
+        assertThat(lines(next)).extracting(user -> user.get("email").asText()).startsWith("third@export.test");
+    }
+
+    private static List<JsonNode> lines(ByteArrayOutputStream out) throws Exception {
+        List<JsonNode> users = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            users.add(objectMapper.readTree(line));
+        }
+        return users;
+    }
+}
@@ -0,0 +1,92 @@
+package com.electronapp.authbackend.service;
+
+import com.electronapp.authbackend.dto.UserImportResult;
+import com.electronapp.authbackend.entity.OAuth2Provider;
+import com.electronapp.authbackend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk import with small batches while only one pooled connection is free: a batch that needed
+ * a second connection while holding the first would time out
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.show-sql=false",
+    "spring.datasource.hikari.maximum-pool-size=2",
+    "auth.import.batch-size=2"
+})
+class UserImportServiceTest {
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void importsUsersAndLinksWithOneConnection() throws Exception {
+        UserImportResult result = importCsv(
+            "email,firstName,lastName,providerName,providerUserId",
+            "one@import.test,One,Row,google,g-import-1",
+            "two@import.test,Two,Row,google,g-import-2",
+            "one@import.test,One,Row,instagram,i-import-1",
+            "three@import.test,Three,Row,,");
+
+        assertThat(result.getRowsRead()).isEqualTo(4);
+        assertThat(result.getUsersCreated()).isEqualTo(3);
+        assertThat(result.getProvidersLinked()).isEqualTo(3);
+        assertThat(providersOf("one@import.test")).containsExactlyInAnyOrder("g-import-1", "i-import-1");
+
+        UserImportResult rerun = importCsv(
+            "email,firstName,lastName,providerName,providerUserId",
+            "one@import.test,One,Row,google,g-import-1",
+            "three@import.test,Three,Row,,");
+        assertThat(rerun.getUsersCreated()).isZero();
+        assertThat(rerun.getProvidersLinked()).isZero();
+        assertThat(rerun.getRowsSkipped()).isEqualTo(2);
+    }
+
+    @Test
+    void providerAccountNamedByTwoEmailsCreatesOneUser() throws Exception {
+        // Same provider account in one batch (rows 1-2) and again in a later batch (row 4)
+        UserImportResult result = importCsv(
+            "email,providerName,providerUserId",
+            "first@dupe.test,google,g-dupe-1",
+            "second@dupe.test,google,g-dupe-1",
+            "filler@dupe.test,google,g-dupe-2",
+            "third@dupe.test,google,g-dupe-1");
+
+        assertThat(result.getUsersCreated()).isEqualTo(2);
+        assertThat(result.getProvidersLinked()).isEqualTo(2);
+        assertThat(result.getRowsSkipped()).isEqualTo(2);
+        assertThat(providersOf("first@dupe.test")).containsExactly("g-dupe-1");
+        assertThat(userRepository.findByEmail("second@dupe.test")).isEmpty();
+        assertThat(userRepository.findByEmail("third@dupe.test")).isEmpty();
+    }
+
+    private UserImportResult importCsv(String... lines) throws Exception {
+        byte[] csv = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        try (Connection held = dataSource.getConnection()) {
+            return userImportService.importCsv(new ByteArrayInputStream(csv));
+        }
+    }
+
+    private List<String> providersOf(String email) {
+        return userRepository.findWithProvidersByEmail(email).orElseThrow().getOauth2Providers().stream()
+            .map(OAuth2Provider::getProviderUserId)
+            .toList();
+    }
+}
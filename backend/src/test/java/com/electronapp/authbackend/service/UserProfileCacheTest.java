@@ -0,0 +1,97 @@
+package com.electronapp.authbackend.service;
+
+import com.electronapp.authbackend.dto.OAuth2ProviderDTO;
+import com.electronapp.authbackend.dto.UserDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Cached profiles must reflect provider links as soon as they change
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class UserProfileCacheTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @SpyBean
+    private UserProfileCache userProfileCache;
+
+    @Test
+    void profileIsNotStaleAfterLinkingAndDisconnectingProviders() {
+        String email = "cached@profile.test";
+        userService.createOrUpdateOAuth2User(email, "Cached", "Profile", null, "google", "g-cached-1");
+
+        assertThat(providersOf(userService.getUserProfile(email).orElseThrow()))
+            .containsExactly("google");
+        assertThat(cacheManager.getCache(UserService.USER_PROFILE_CACHE).get(email)).isNotNull();
+
+        userService.createOrUpdateOAuth2User(email, "Cached", "Profile", null, "instagram", "i-cached-1");
+        assertThat(providersOf(userService.getUserProfile(email).orElseThrow()))
+            .containsExactlyInAnyOrder("google", "instagram");
+
+        assertThat(userService.disconnectOAuth2Provider(email, "google")).isTrue();
+        assertThat(providersOf(userService.getUserProfile(email).orElseThrow()))
+            .containsExactly("instagram");
+    }
+
+    @Test
+    void profileReadBeforeLinkCommitIsNotCachedPastTheEviction() throws Exception {
+        String email = "race@profile.test";
+        userService.createOrUpdateOAuth2User(email, "Race", "Profile", null, "google", "g-profile-race-1");
+
+        // The reader has loaded the old provider list and waits to cache it until the new link has committed
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch linked = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            loaded.countDown();
+            linked.await(10, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(userProfileCache).put(eq(email), anyLong(), any());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Optional<UserDTO>> staleRead = executor.submit(() -> userService.getUserProfile(email));
+            assertThat(loaded.await(10, TimeUnit.SECONDS)).isTrue();
+            userService.createOrUpdateOAuth2User(email, "Race", "Profile", null, "instagram", "i-profile-race-1");
+            linked.countDown();
+            assertThat(providersOf(staleRead.get(10, TimeUnit.SECONDS).orElseThrow())).containsExactly("google");
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(providersOf(userService.getUserProfile(email).orElseThrow()))
+            .containsExactlyInAnyOrder("google", "instagram");
+    }
+
+    @Test
+    void unknownEmailIsNotCached() {
+        String email = "later@profile.test";
+        assertThat(userService.getUserProfile(email)).isEmpty();
+        assertThat(cacheManager.getCache(UserService.USER_PROFILE_CACHE).get(email)).isNull();
+    }
+
+    private static List<String> providersOf(UserDTO user) {
+        return user.getOauth2Providers().stream().map(OAuth2ProviderDTO::getProviderName).toList();
+    }
+}
@@ -0,0 +1,129 @@
+package com.electronapp.authbackend.service;
+
+import com.electronapp.authbackend.entity.OAuth2Provider;
+import com.electronapp.authbackend.entity.User;
+import com.electronapp.authbackend.repository.OAuth2ProviderRepository;
+import com.electronapp.authbackend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Concurrent OAuth2 callbacks for one user must end with one user and one link per provider
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class UserServiceConcurrencyTest {
+
+    private static final int CALLBACKS = 128;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OAuth2ProviderRepository oauth2ProviderRepository;
+
+    @Test
+    void parallelCallbacksForSameAccountCreateOneUserAndOneLink() throws Exception {
+        String email = "race@concurrency.test";
+        String providerUserId = "g-race-1";
+
+        List<User> users = runInParallel(CALLBACKS, () -> userService.createOrUpdateOAuth2User(
+            email, "Race", "Condition", null, "google", providerUserId));
+
+        long userId = users.get(0).getId();
+        assertThat(users).allSatisfy(user -> assertThat(user.getId()).isEqualTo(userId));
+
+        Optional<User> stored = userRepository.findWithProvidersByEmail(email);
+        assertThat(stored).isPresent();
+        assertThat(stored.get().getId()).isEqualTo(userId);
+        assertThat(stored.get().getOauth2Providers())
+            .extracting(OAuth2Provider::getProviderUserId)
+            .containsExactly(providerUserId);
+        assertThat(oauth2ProviderRepository.findAll())
+            .filteredOn(link -> providerUserId.equals(link.getProviderUserId()))
+            .hasSize(1);
+    }
+
+    @Test
+    void parallelCallbacksForNewProviderOfExistingUserAddOneLink() throws Exception {
+        String email = "linker@concurrency.test";
+        User existing = userService.createOrUpdateOAuth2User(email, "Link", "Er", null, "google", "g-linker-1");
+
+        List<User> users = runInParallel(CALLBACKS, () -> userService.createOrUpdateOAuth2User(
+            email, "Link", "Er", null, "instagram", "i-linker-1"));
+
+        assertThat(users).allSatisfy(user -> assertThat(user.getId()).isEqualTo(existing.getId()));
+        assertThat(userRepository.findWithProvidersByEmail(email).orElseThrow().getOauth2Providers())
+            .extracting(OAuth2Provider::getProviderName)
+            .containsExactlyInAnyOrder("google", "instagram");
+    }
+
+    @Test
+    void parallelSignupsOfOneEmailFromTwoProvidersCreateOneUser() throws Exception {
+        String email = "twoproviders@concurrency.test";
+        AtomicInteger callback = new AtomicInteger();
+
+        List<User> users = runInParallel(CALLBACKS, () -> callback.getAndIncrement() % 2 == 0
+            ? userService.createOrUpdateOAuth2User(email, "Two", "Providers", null, "google", "g-two-1")
+            : userService.createOrUpdateOAuth2User(email, "Two", "Providers", null, "instagram", "i-two-1"));
+
+        long userId = users.get(0).getId();
+        assertThat(users).allSatisfy(user -> assertThat(user.getId()).isEqualTo(userId));
+        assertThat(userRepository.findWithProvidersByEmail(email).orElseThrow().getOauth2Providers())
+            .extracting(OAuth2Provider::getProviderUserId)
+            .containsExactlyInAnyOrder("g-two-1", "i-two-1");
+    }
+
+    @Test
+    void secondAccountOfLinkedProviderIsRejected() {
+        String email = "conflict@concurrency.test";
+        userService.createOrUpdateOAuth2User(email, "Con", "Flict", null, "google", "g-conflict-1");
+
+        assertThatThrownBy(() -> userService.createOrUpdateOAuth2User(
+                email, "Con", "Flict", null, "google", "g-conflict-2"))
+            .isInstanceOf(ProviderAlreadyLinkedException.class);
+        assertThat(userRepository.findWithProvidersByEmail(email).orElseThrow().getOauth2Providers())
+            .extracting(OAuth2Provider::getProviderUserId)
+            .containsExactly("g-conflict-1");
+    }
+
+    private static List<User> runInParallel(int count, Callable<User> callback) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<User>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return callback.call();
+                }));
+            }
+            start.countDown();
+
+            List<User> users = new ArrayList<>();
+            for (Future<User> future : futures) {
+                users.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return users;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
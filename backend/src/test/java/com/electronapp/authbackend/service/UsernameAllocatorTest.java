@@ -0,0 +1,102 @@
+package com.electronapp.authbackend.service;
+
+import com.electronapp.authbackend.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parallel signups sharing a name prefix must receive distinct usernames
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class UsernameAllocatorTest {
+
+    private static final int SIGNUPS = 100;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UsernameAllocator usernameAllocator;
+
+    @Test
+    void parallelSignupsSharingPrefixGetDistinctUsernames() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<User>> futures = new ArrayList<>();
+            for (int i = 0; i < SIGNUPS; i++) {
+                String email = "samename@host" + i + ".test";
+                String providerUserId = "g-samename-" + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return userService.createOrUpdateOAuth2User(email, "Same", "Name", null, "google", providerUserId);
+                }));
+            }
+            start.countDown();
+
+            List<String> usernames = new ArrayList<>();
+            for (Future<User> future : futures) {
+                usernames.add(future.get(30, TimeUnit.SECONDS).getUsername());
+            }
+            assertThat(usernames).doesNotHaveDuplicates().contains("samename").allMatch(name -> name.startsWith("samename"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void allocateAllSkipsNamesAlreadyTaken() {
+        String first = usernameAllocator.allocate("batchname");
+
+        List<String> allocated = usernameAllocator.allocateAll(List.of("batchname", "batchname", "othername"));
+
+        assertThat(allocated).hasSize(3).doesNotHaveDuplicates().doesNotContain(first);
+        assertThat(allocated.get(2)).isEqualTo("othername");
+    }
+
+    @Test
+    void parallelBulkAllocationsCreatingOneCounterRowGetDistinctNames() throws Exception {
+        // Every call finds no counter row for the prefix; all but one lose the insert and retry
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<String>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return usernameAllocator.allocateAll(List.of("bulkfresh", "bulkfresh"));
+                }));
+            }
+            start.countDown();
+
+            List<String> usernames = new ArrayList<>();
+            for (Future<List<String>> future : futures) {
+                usernames.addAll(future.get(30, TimeUnit.SECONDS));
+            }
+            assertThat(usernames).hasSize(16).doesNotHaveDuplicates().allMatch(name -> name.startsWith("bulkfresh"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void allocateAllGivesOverlappingPrefixesDistinctNames() {
+        // "overlap" + 1 and "overlap1" + 0 are the same candidate in the first round
+        List<String> allocated = usernameAllocator.allocateAll(List.of("overlap", "overlap", "overlap1"));
+
+        assertThat(allocated).hasSize(3).doesNotHaveDuplicates();
+        assertThat(allocated.subList(0, 2)).allMatch(name -> name.startsWith("overlap"));
+        assertThat(allocated.get(2)).startsWith("overlap1");
+    }
+}
@@ -1,20 +1,40 @@
-import { HttpInterceptorFn } from '@angular/common/http';
+import { HttpErrorResponse, HttpInterceptorFn, HttpRequest } from '@angular/common/http';
 import { inject } from '@angular/core';
+import { catchError, switchMap, throwError } from 'rxjs';
 import { AuthService } from '../services/auth.service';
 
 /**
- * HTTP interceptor to add JWT token to requests
+ * HTTP interceptor to add JWT token to requests.
+ * Access tokens are short-lived, so a 401 is retried once after refreshing the token.
  */
 export const authInterceptor: HttpInterceptorFn = (req, next) => {
   const authService = inject(AuthService);
   const token = authService.token();
   
-  if (token) {
-    const authReq = req.clone({
-      headers: req.headers.set('Authorization', `Bearer ${token}`)
-    });
-    return next(authReq);
+  if (!token) {
+    return next(req);
   }
   
-  return next(req);
-};
\ No newline at end of file
+  return next(withToken(req, token)).pipe(
+    catchError(error => {
+      if (!(error instanceof HttpErrorResponse) || error.status !== 401
+          || req.url.includes('/auth/refresh') || !authService.hasRefreshToken()) {
+        return throwError(() => error);
+      }
+      
+      return authService.refreshAccessToken().pipe(
+        switchMap(response => next(withToken(req, response.token))),
+        catchError(refreshError => {
+          authService.logout();
+          return throwError(() => refreshError);
+        })
+      );
+    })
+  );
+};
+
+function withToken(req: HttpRequest<unknown>, token: string): HttpRequest<unknown> {
+  return req.clone({
+    headers: req.headers.set('Authorization', `Bearer ${token}`)
+  });
+}
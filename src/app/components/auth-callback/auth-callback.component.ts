@@ -25,6 +25,7 @@ export class AuthCallbackComponent implements OnInit {
     // Get token from query parameters
     this.route.queryParams.subscribe(params => {
       const token = params['token'];
+      const refreshToken = params['refreshToken'];
       const error = params['error'];
       
       if (error) {
@@ -37,7 +38,7 @@ export class AuthCallbackComponent implements OnInit {
       
       if (token) {
         // Handle successful OAuth2 authentication
-        this.authService.handleOAuth2Callback(token).subscribe({
+        this.authService.handleOAuth2Callback(token, refreshToken).subscribe({
           next: (user) => {
             console.log('OAuth2 authentication successful:', user);
             this.router.navigate(['/profile']);
@@ -17,6 +17,7 @@ export interface OAuth2Provider {
 
 export interface AuthResponse {
   token: string;
+  refreshToken: string;
   type: string;
   user: User;
 }
@@ -2,7 +2,7 @@ import { Injectable, signal, computed } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Router } from '@angular/router';
 import { Observable, of, catchError } from 'rxjs';
-import { tap } from 'rxjs/operators';
+import { finalize, shareReplay, tap } from 'rxjs/operators';
 import { User, AuthResponse, LoginRequest } from '../models/auth.model';
 
 /**
@@ -15,6 +15,7 @@ export class AuthService {
   private readonly API_URL = '/api';
   private readonly BACKEND_URL = 'http://localhost:8080/api';
   private readonly TOKEN_KEY = 'auth_token';
+  private readonly REFRESH_TOKEN_KEY = 'auth_refresh_token';
   
   // Signals for reactive state management
   private _user = signal<User | null>(null);
@@ -25,6 +26,9 @@ export class AuthService {
   token = this._token.asReadonly();
   isAuthenticated = computed(() => !!this._token());
   
+  // Refresh in progress, shared so concurrent 401s do not present the same refresh token twice
+  private refreshInFlight: Observable<AuthResponse> | null = null;
+  
   constructor(
     private http: HttpClient,
     private router: Router
@@ -54,6 +58,7 @@ export class AuthService {
       .pipe(
         tap(response => {
           this.setAuthData(response.token, response.user);
+          this.setRefreshToken(response.refreshToken);
         }),
         catchError(error => {
           console.error('Login error:', error);
@@ -65,8 +70,11 @@ export class AuthService {
   /**
    * Handle OAuth2 callback with token
    */
-  handleOAuth2Callback(token: string): Observable<User> {
+  handleOAuth2Callback(token: string, refreshToken?: string): Observable<User> {
     this.setToken(token);
+    if (refreshToken) {
+      this.setRefreshToken(refreshToken);
+    }
     return this.getCurrentUser().pipe(
       tap(user => this._user.set(user))
     );
@@ -79,11 +87,43 @@ export class AuthService {
     return this.http.get<User>(`${this.API_URL}/auth/me`);
   }
   
+  /**
+   * Exchange the stored refresh token for a new access/refresh token pair
+   */
+  refreshAccessToken(): Observable<AuthResponse> {
+    if (!this.refreshInFlight) {
+      const refreshToken = localStorage.getItem(this.REFRESH_TOKEN_KEY);
+      this.refreshInFlight = this.http.post<AuthResponse>(`${this.API_URL}/auth/refresh`, { refreshToken })
+        .pipe(
+          tap(response => {
+            this.setAuthData(response.token, response.user);
+            this.setRefreshToken(response.refreshToken);
+          }),
+          finalize(() => this.refreshInFlight = null),
+          shareReplay(1)
+        );
+    }
+    return this.refreshInFlight;
+  }
+  
+  /**
+   * Check if a refresh token exists in storage
+   */
+  hasRefreshToken(): boolean {
+    return !!localStorage.getItem(this.REFRESH_TOKEN_KEY);
+  }
+  
   /**
    * Logout user
    */
   logout(): void {
+    if (this._token()) {
+      // Revoke the tokens server-side; local state is cleared regardless of the outcome
+      const refreshToken = localStorage.getItem(this.REFRESH_TOKEN_KEY);
+      this.http.post(`${this.API_URL}/auth/logout`, { refreshToken }).subscribe({ error: () => {} });
+    }
     localStorage.removeItem(this.TOKEN_KEY);
+    localStorage.removeItem(this.REFRESH_TOKEN_KEY);
     this._token.set(null);
     this._user.set(null);
     this.router.navigate(['/login']);
@@ -119,6 +159,13 @@ export class AuthService {
     this._token.set(token);
   }
   
+  /**
+   * Set refresh token
+   */
+  private setRefreshToken(refreshToken: string): void {
+    localStorage.setItem(this.REFRESH_TOKEN_KEY, refreshToken);
+  }
+  
   /**
    * Check if token exists in storage
    */